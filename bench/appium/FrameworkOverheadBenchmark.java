@@ -0,0 +1,155 @@
+package appium;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.AndroidElement;
+import io.appium.java_client.remote.MobileCapabilityType;
+
+// Measures the harness' own overhead against a local MockAppiumServer with
+// zero injected latency, so results exclude app and device time.
+// Run with: mvn -Pjmh compile exec:exec  (JSON results in target/jmh-result.json)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameworkOverheadBenchmark {
+    private static final By SIGN_IN = By.id("com.ecozym.wastemanagement:id/btn_signIn");
+
+    private MockAppiumServer server;
+    private AndroidDriver<AndroidElement> driver;
+    private WebDriverWait wait;
+    private String largePageSource;
+    private List<TestResult> results;
+    private Path reportDir;
+    private Path reportFile;
+    private int nextResult;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path cache = Files.createTempFile("locator-cache", ".properties");
+        System.setProperty("locator.cache", cache.toString());
+        reportDir = Files.createTempDirectory("ecozym_reports");
+        System.setProperty("results.store", reportDir.resolve("results-store").toString());
+
+        server = new MockAppiumServer(0, 0);
+        driver = newSession();
+        wait = new WebDriverWait(driver, 1);
+        largePageSource = pageSourceWithNodes(400);
+        reportFile = reportDir.resolve("ecozym_run.csv");
+
+        results = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            String id = String.format("TC%03d", i);
+            results.add(i % 3 == 0
+                ? TestResult.fail(id, "Login Test " + i, "Login with generated credentials", "Dashboard shown",
+                    "Sign In button not available", "Expected condition failed: waiting for element to be clickable")
+                : TestResult.pass(id, "Login Test " + i, "Login with generated credentials", "Dashboard shown",
+                    "Login successful, redirected to main page"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        driver.quit();
+        server.close();
+        try (var files = Files.walk(reportDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public String locatorResolution() {
+        return LocatorChain.of(driver, "benchmark.signIn", 1)
+            .then("resource-id", probe -> probe.until(ExpectedConditions.presenceOfElementLocated(SIGN_IN)))
+            .run();
+    }
+
+    @Benchmark
+    public boolean safeClick() {
+        return SafeActions.safeClick(wait, SIGN_IN, "Sign In button");
+    }
+
+    @Benchmark
+    public boolean safeInput() {
+        return SafeActions.safeInput(wait, By.id("com.ecozym.wastemanagement:id/etEmail"), "user@gmail.com", "email");
+    }
+
+    @Benchmark
+    public ScreenSnapshot pageSourceParsing() {
+        return ScreenSnapshot.parse(largePageSource);
+    }
+
+    // The runners' per-row path: open the run file, lock, append, force, rewrite the summary.
+    // A fresh file each time so opening never re-counts a growing file.
+    @Benchmark
+    public int csvReportWriting() throws IOException {
+        Files.deleteIfExists(reportFile);
+        try (ResultSink sink = ResultSink.open(reportFile)) {
+            sink.append(results.get(nextResult++ % results.size()));
+            return sink.total();
+        }
+    }
+
+    @Benchmark
+    public String sessionSetup() {
+        AndroidDriver<AndroidElement> session = newSession();
+        String id = session.getSessionId().toString();
+        session.quit();
+        return id;
+    }
+
+    private AndroidDriver<AndroidElement> newSession() {
+        DesiredCapabilities cap = new DesiredCapabilities();
+        cap.setCapability(MobileCapabilityType.PLATFORM_NAME, "Android");
+        cap.setCapability(MobileCapabilityType.AUTOMATION_NAME, "UiAutomator2");
+        cap.setCapability(MobileCapabilityType.DEVICE_NAME, "Android Device");
+        Device device = Device.simulated("benchmark", 0, server.url());
+        device.applyTo(cap);
+        return new AndroidDriver<>(device.serverUrl(), cap);
+    }
+
+    private static String pageSourceWithNodes(int count) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><hierarchy rotation=\"0\">");
+        xml.append("<android.widget.FrameLayout class=\"android.widget.FrameLayout\" bounds=\"[0,0][1080,2340]\">");
+        String[] classes = {"android.widget.TextView", "android.widget.EditText", "android.widget.Button"};
+        for (int i = 0; i < count; i++) {
+            String className = classes[i % classes.length];
+            xml.append('<').append(className)
+                .append(" class=\"").append(className)
+                .append("\" text=\"Item ").append(i)
+                .append("\" resource-id=\"com.ecozym.wastemanagement:id/item").append(i)
+                .append("\" enabled=\"true\" displayed=\"true\" bounds=\"[0,").append(i * 5)
+                .append("][1080,").append(i * 5 + 5).append("]\"/>");
+        }
+        xml.append("</android.widget.FrameLayout></hierarchy>");
+        return xml.toString();
+    }
+}
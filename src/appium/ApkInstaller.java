@@ -0,0 +1,276 @@
+package appium;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+// Installs the APK under test once per build instead of on every session.
+// The APK is identified by its SHA-256; which build each device has is kept
+// in .apk-installs.properties and confirmed with "pm path" (or, when unknown,
+// by hashing the installed base.apk on the device). preinstall() brings every
+// device up to date in parallel before the test phase, and applyTo() then
+// drops the app capability so session start never goes through Appium's
+// install path and its androidInstallTimeout.
+public class ApkInstaller {
+    public enum Outcome { UP_TO_DATE, INSTALLED, FAILED, SIMULATED }
+
+    public record Result(String udid, Outcome outcome, long durationMs, String detail) {
+        public boolean ready() {
+            return outcome != Outcome.FAILED;
+        }
+    }
+
+    private record AdbOutput(int exitCode, String text) {
+        boolean ok() {
+            return exitCode == 0;
+        }
+    }
+
+    // The APK at one path as of one modification time
+    private record ApkVersion(String path, long size, long modified) {
+    }
+
+    private static final Path STATE_FILE = Paths.get(System.getProperty("apk.installs", ".apk-installs.properties"));
+    private static final long INSTALL_TIMEOUT_MS = 120000;
+    private static final long QUERY_TIMEOUT_MS = 15000;
+
+    private static final ApkInstaller shared = new ApkInstaller();
+
+    private final String adb = adbPath();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Properties installed = loadState();
+    private final Map<ApkVersion, String> checksums = new ConcurrentHashMap<>();
+    // udid|package|sha256 -> the one install check for that combination in this JVM
+    private final Map<String, CompletableFuture<Result>> checks = new ConcurrentHashMap<>();
+
+    public static ApkInstaller shared() {
+        return shared;
+    }
+
+    // Brings every real device up to date at once, ahead of the test phase
+    public List<Result> preinstall(List<Device> devices, File apk, String appPackage) {
+        List<Device> real = devices.stream().filter(device -> !device.simulated()).toList();
+        if (real.isEmpty()) {
+            return List.of();
+        }
+        if (!apk.exists()) {
+            System.out.println("⚠️ " + apk.getAbsolutePath() + " not found, nothing to pre-install");
+            return List.of();
+        }
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Result>> pending = new ArrayList<>();
+        for (Device device : real) {
+            pending.add(check(device, apk, appPackage));
+        }
+
+        List<Result> results = new ArrayList<>();
+        int installs = 0;
+        int failures = 0;
+        for (CompletableFuture<Result> future : pending) {
+            Result result = future.join();
+            results.add(result);
+            installs += result.outcome() == Outcome.INSTALLED ? 1 : 0;
+            failures += result.outcome() == Outcome.FAILED ? 1 : 0;
+        }
+        System.out.println("📦 " + apk.getName() + " on " + real.size() + " device(s) in "
+            + (System.currentTimeMillis() - start) + " ms: " + installs + " installed, " + failures + " failed, "
+            + (real.size() - installs - failures) + " already current");
+        return results;
+    }
+
+    // Waits for the device to have this build and then lets the session start without reinstalling.
+    // Full-reset profiles and simulated devices keep the app capability as it is.
+    public void applyTo(DesiredCapabilities cap, Device device, File apk, String appPackage) {
+        if (device.simulated() || !apk.exists() || Boolean.TRUE.equals(cap.getCapability("appium:fullReset"))) {
+            return;
+        }
+        Result result = check(device, apk, appPackage).join();
+        if (!result.ready()) {
+            System.out.println("⚠️ Pre-install failed on " + device.udid() + " (" + result.detail() + "), leaving the install to Appium");
+            return;
+        }
+        cap.setCapability("appium:app", (Object) null);
+    }
+
+    private CompletableFuture<Result> check(Device device, File apk, String appPackage) {
+        if (device.simulated()) {
+            return CompletableFuture.completedFuture(new Result(device.udid(), Outcome.SIMULATED, 0, "simulated device"));
+        }
+        String checksum = checksum(apk);
+        String key = device.udid() + "|" + appPackage + "|" + checksum;
+        CompletableFuture<Result> existing = checks.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Result> created = new CompletableFuture<>();
+        existing = checks.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        workers.execute(() -> {
+            Result result;
+            try {
+                result = ensureInstalled(device.udid(), apk, appPackage, checksum);
+            } catch (Exception e) {
+                result = new Result(device.udid(), Outcome.FAILED, 0, e.getMessage());
+            }
+            if (!result.ready()) {
+                // The next session on this device tries again
+                checks.remove(key, created);
+            }
+            created.complete(result);
+        });
+        return created;
+    }
+
+    private Result ensureInstalled(String udid, File apk, String appPackage, String checksum) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        String stateKey = udid + "|" + appPackage;
+        String shortSum = checksum.substring(0, 12);
+
+        AdbOutput path = adb(udid, QUERY_TIMEOUT_MS, "shell", "pm", "path", appPackage);
+        String remotePath = path.ok() ? firstPackagePath(path.text()) : null;
+        if (remotePath != null) {
+            boolean current = checksum.equals(stateFor(stateKey));
+            if (!current) {
+                // Unknown or different build on record: ask the device what it actually has
+                AdbOutput remote = adb(udid, QUERY_TIMEOUT_MS, "shell", "sha256sum", remotePath);
+                current = remote.ok() && remote.text().trim().startsWith(checksum);
+            }
+            if (current) {
+                recordState(stateKey, checksum);
+                System.out.println("📦 " + apk.getName() + " " + shortSum + " already on " + udid);
+                return new Result(udid, Outcome.UP_TO_DATE, System.currentTimeMillis() - start, "build " + shortSum);
+            }
+        }
+
+        System.out.println("📦 Installing " + apk.getName() + " " + shortSum + " on " + udid + "...");
+        AdbOutput install = adb(udid, INSTALL_TIMEOUT_MS, "install", "-r", "-g", apk.getAbsolutePath());
+        long elapsed = System.currentTimeMillis() - start;
+        if (!install.ok() || !install.text().contains("Success")) {
+            System.err.println("❌ Install on " + udid + " failed: " + install.text().trim());
+            return new Result(udid, Outcome.FAILED, elapsed, install.text().trim());
+        }
+        recordState(stateKey, checksum);
+        System.out.println("✅ Installed " + apk.getName() + " " + shortSum + " on " + udid + " in " + elapsed + " ms");
+        return new Result(udid, Outcome.INSTALLED, elapsed, "build " + shortSum);
+    }
+
+    // SHA-256 of the APK, computed once per file version
+    public String checksum(File apk) {
+        ApkVersion version = new ApkVersion(apk.getAbsolutePath(), apk.length(), apk.lastModified());
+        String cached = checksums.get(version);
+        if (cached != null) {
+            return cached;
+        }
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(apk.toPath()), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            String checksum = HexFormat.of().formatHex(in.getMessageDigest().digest());
+            checksums.putIfAbsent(version, checksum);
+            return checksum;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("❌ Cannot hash APK " + apk.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private AdbOutput adb(String udid, long timeoutMs, String... args) throws InterruptedException {
+        List<String> command = new ArrayList<>(List.of(adb, "-s", udid));
+        command.addAll(List.of(args));
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            return new AdbOutput(-1, "cannot run " + adb + ": " + e.getMessage());
+        }
+        CompletableFuture<String> output = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                return "";
+            }
+        }, workers);
+
+        if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            return new AdbOutput(-1, "adb " + String.join(" ", args) + " timed out after " + timeoutMs + " ms");
+        }
+        return new AdbOutput(process.exitValue(), output.join());
+    }
+
+    // "package:/data/app/~~x/com.foo-y/base.apk" -> the path; split APKs list base.apk first
+    private static String firstPackagePath(String output) {
+        for (String line : output.split("\\R")) {
+            if (line.startsWith("package:")) {
+                return line.substring("package:".length()).trim();
+            }
+        }
+        return null;
+    }
+
+    private String stateFor(String key) {
+        synchronized (installed) {
+            return installed.getProperty(key);
+        }
+    }
+
+    private void recordState(String key, String checksum) {
+        synchronized (installed) {
+            if (checksum.equals(installed.getProperty(key))) {
+                return;
+            }
+            installed.setProperty(key, checksum);
+            try (OutputStream out = Files.newOutputStream(STATE_FILE)) {
+                installed.store(out, "udid|package = SHA-256 of the installed APK");
+            } catch (IOException e) {
+                System.err.println("❌ Cannot write install state " + STATE_FILE + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Properties loadState() {
+        Properties properties = new Properties();
+        if (Files.exists(STATE_FILE)) {
+            try (InputStream in = Files.newInputStream(STATE_FILE)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot read install state " + STATE_FILE + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    // -Dadb.path, then $ANDROID_HOME/platform-tools/adb, then adb on the PATH
+    static String adbPath() {
+        String configured = System.getProperty("adb.path");
+        if (configured != null) {
+            return configured;
+        }
+        for (String variable : List.of("ANDROID_HOME", "ANDROID_SDK_ROOT")) {
+            String home = System.getenv(variable);
+            if (home != null && Files.isExecutable(Paths.get(home, "platform-tools", "adb"))) {
+                return Paths.get(home, "platform-tools", "adb").toString();
+            }
+        }
+        return "adb";
+    }
+}
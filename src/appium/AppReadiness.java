@@ -0,0 +1,218 @@
+package appium;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.appmanagement.ApplicationState;
+
+// Fail-fast replacement for the 20 s wait on the start screen. One probe asks
+// the server /status, the foreground package and activity, the app state and
+// whether the start-screen marker exists, all in parallel, and classifies the
+// device within the probe timeout. Checks that miss the timeout count as
+// unknown and the probe is repeated. Only positive evidence (a failing
+// /status, an app state other than foreground, another foreground package)
+// trips a short circuit for that server/device, so the test cases that
+// follow fail at once instead of each timing out on the same broken
+// environment.
+public class AppReadiness {
+    public enum State { READY, SERVER_DOWN, APP_NOT_LAUNCHED, WRONG_SCREEN, UNKNOWN }
+
+    public record Verdict(State state, String detail, long elapsedMs) {
+        public boolean ready() {
+            return state == State.READY;
+        }
+
+        @Override
+        public String toString() {
+            return state + " (" + detail + ", " + elapsedMs + " ms)";
+        }
+    }
+
+    public static class NotReadyException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Verdict verdict;
+
+        public NotReadyException(Verdict verdict) {
+            super(verdict.toString());
+            this.verdict = verdict;
+        }
+
+        public Verdict verdict() {
+            return verdict;
+        }
+    }
+
+    private static final long PROBE_TIMEOUT_MS = Long.getLong("readiness.probeTimeoutMs", 800);
+    // A splash or loading screen may stand in front of the start screen for a moment
+    private static final long SCREEN_WAIT_MS = Long.getLong("readiness.screenWaitMs", 3000);
+    private static final long COOLDOWN_MS = Long.getLong("readiness.cooldownMs", 30000);
+    private static final long RETRY_INTERVAL_MS = 250;
+
+    private static final ExecutorService probes = Executors.newVirtualThreadPerTaskExecutor();
+    private static final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofMillis(PROBE_TIMEOUT_MS))
+        .executor(probes)
+        .build();
+
+    // Environment known to be broken: key -> verdict, and when to try it again
+    private record Trip(Verdict verdict, long until) {
+    }
+
+    private static final Map<String, Trip> tripped = new ConcurrentHashMap<>();
+
+    // Before creating a session: refuses at once while the server or device is
+    // short-circuited, otherwise checks /status
+    public static void requireServer(URL serverUrl, String udid) {
+        checkCircuit(serverUrl.toString());
+        checkCircuit(serverUrl + "|" + udid);
+
+        long start = System.currentTimeMillis();
+        String problem = serverStatus(serverUrl);
+        if (problem == null) {
+            // Slow, not down: session creation has its own timeout
+            System.out.println("⚠️ " + serverUrl + "/status did not answer in " + PROBE_TIMEOUT_MS + " ms, trying the session anyway");
+        } else if (!problem.isEmpty()) {
+            fail(serverUrl.toString(), new Verdict(State.SERVER_DOWN, problem, System.currentTimeMillis() - start));
+        }
+    }
+
+    // After the session exists: returns once the start screen is up, throws NotReadyException otherwise
+    public static Verdict requireApp(AndroidDriver<?> driver, String appPackage, By startScreenMarker) {
+        URL serverUrl = ((HttpCommandExecutor) driver.getCommandExecutor()).getAddressOfRemoteServer();
+        String udid = String.valueOf(driver.getCapabilities().getCapability("udid"));
+        long deadline = System.currentTimeMillis() + SCREEN_WAIT_MS;
+
+        Verdict verdict = probe(driver, serverUrl, appPackage, startScreenMarker);
+        while ((verdict.state() == State.WRONG_SCREEN || verdict.state() == State.UNKNOWN)
+            && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(RETRY_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NotReadyException(verdict);
+            }
+            verdict = probe(driver, serverUrl, appPackage, startScreenMarker);
+        }
+
+        if (verdict.ready()) {
+            System.out.println("🟢 App ready: " + verdict);
+            return verdict;
+        }
+        String key = verdict.state() == State.SERVER_DOWN ? serverUrl.toString() : serverUrl + "|" + udid;
+        fail(key, verdict);
+        return verdict;
+    }
+
+    // One parallel round of checks, bounded by the probe timeout
+    public static Verdict probe(AndroidDriver<?> driver, URL serverUrl, String appPackage, By startScreenMarker) {
+        long start = System.currentTimeMillis();
+        CompletableFuture<String> status = CompletableFuture.supplyAsync(() -> serverStatus(serverUrl), probes);
+        CompletableFuture<String> foreground = async(driver::getCurrentPackage);
+        CompletableFuture<String> activity = async(driver::currentActivity);
+        CompletableFuture<ApplicationState> appState = async(() -> driver.queryAppState(appPackage));
+        CompletableFuture<Boolean> marker = async(() -> !driver.findElements(startScreenMarker).isEmpty());
+
+        long deadline = start + PROBE_TIMEOUT_MS;
+        // null below means the check did not answer in time, which proves nothing
+        String statusProblem = await(status, deadline, null);
+        String foregroundPackage = await(foreground, deadline, null);
+        String currentActivity = await(activity, deadline, null);
+        ApplicationState state = await(appState, deadline, null);
+        Boolean onStartScreen = await(marker, deadline, null);
+        long elapsed = System.currentTimeMillis() - start;
+
+        if (statusProblem != null && !statusProblem.isEmpty()) {
+            return new Verdict(State.SERVER_DOWN, statusProblem, elapsed);
+        }
+        if ((state != null && state != ApplicationState.RUNNING_IN_FOREGROUND)
+            || (foregroundPackage != null && !appPackage.equals(foregroundPackage))) {
+            return new Verdict(State.APP_NOT_LAUNCHED, "app state " + state + ", foreground package " + foregroundPackage, elapsed);
+        }
+        if (Boolean.TRUE.equals(onStartScreen)) {
+            return new Verdict(State.READY, "on " + currentActivity, elapsed);
+        }
+        if (Boolean.FALSE.equals(onStartScreen) && state != null && foregroundPackage != null) {
+            return new Verdict(State.WRONG_SCREEN, "on " + currentActivity + ", no " + startScreenMarker, elapsed);
+        }
+        return new Verdict(State.UNKNOWN, "no answer in " + PROBE_TIMEOUT_MS + " ms from"
+            + (statusProblem == null ? " /status" : "") + (state == null ? " app state" : "")
+            + (foregroundPackage == null ? " foreground package" : "") + (onStartScreen == null ? " start-screen check" : ""), elapsed);
+    }
+
+    // Problem description, "" when the server reports ready, null when it did not answer in time
+    private static String serverStatus(URL serverUrl) {
+        String base = serverUrl.toString().replaceAll("/+$", "");
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/status"))
+                .timeout(Duration.ofMillis(PROBE_TIMEOUT_MS)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return "/status returned HTTP " + response.statusCode();
+            }
+            return response.body().contains("\"ready\":false") ? "server reports not ready" : "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (HttpTimeoutException e) {
+            return null;
+        } catch (Exception e) {
+            return "cannot reach " + base + ": " + e.getClass().getSimpleName();
+        }
+    }
+
+    private static void checkCircuit(String key) {
+        Trip trip = tripped.get(key);
+        if (trip == null) {
+            return;
+        }
+        if (System.currentTimeMillis() < trip.until()) {
+            System.out.println("⏭️ Skipping, " + key + " is " + trip.verdict().state() + " (next check in "
+                + (trip.until() - System.currentTimeMillis()) / 1000 + " s)");
+            throw new NotReadyException(trip.verdict());
+        }
+        tripped.remove(key, trip);
+    }
+
+    // Trips the circuit only for SERVER_DOWN and APP_NOT_LAUNCHED, which rest on an actual answer
+    private static void fail(String key, Verdict verdict) {
+        if (verdict.state() == State.SERVER_DOWN || verdict.state() == State.APP_NOT_LAUNCHED) {
+            tripped.put(key, new Trip(verdict, System.currentTimeMillis() + COOLDOWN_MS));
+        }
+        System.err.println("🔴 Not ready: " + verdict);
+        throw new NotReadyException(verdict);
+    }
+
+    private static <T> CompletableFuture<T> async(Supplier<T> check) {
+        return CompletableFuture.supplyAsync(check, probes);
+    }
+
+    // Result, or the fallback when the check failed or missed the deadline
+    private static <T> T await(CompletableFuture<T> future, long deadline, T fallback) {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (Exception e) {
+            future.cancel(true);
+            return fallback;
+        }
+    }
+}
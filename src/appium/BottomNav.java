@@ -0,0 +1,78 @@
+package appium;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import io.appium.java_client.android.AndroidDriver;
+
+// Page object for the Ecozym bottom navigation bar. The bar belongs to the
+// host activity (MainActivity swaps fragments above it), so resolved handles
+// are kept until the screen fingerprint changes: the current activity, or the
+// page-source hash where the activity cannot be read. A cached tap costs one
+// currentActivity call instead of find + displayed + enabled; a handle that
+// went stale anyway is dropped and resolved again.
+public class BottomNav {
+    private static final String ID_PREFIX = "com.ecozym.wastemanagement:id/";
+
+    private final AndroidDriver<?> driver;
+    private final WebDriverWait wait;
+    private final Map<String, WebElement> handles = new HashMap<>();
+    private String fingerprint;
+    private int taps;
+    private int cachedTaps;
+
+    public BottomNav(AndroidDriver<?> driver, WebDriverWait wait) {
+        this.driver = driver;
+        this.wait = wait;
+    }
+
+    // Taps navHome, navTruck, navTrash, navReport, navArticle or btnProfile
+    public void tap(String id) {
+        taps++;
+        WebElement cached = handles.get(id);
+        if (cached != null) {
+            String current = fingerprint();
+            if (current.equals(fingerprint)) {
+                try {
+                    cached.click();
+                    cachedTaps++;
+                    return;
+                } catch (StaleElementReferenceException e) {
+                    System.out.println("⚠️ Cached " + id + " went stale, resolving again");
+                }
+            } else {
+                System.out.println("🔄 Screen changed (" + fingerprint + " -> " + current + "), dropping cached nav handles");
+            }
+            handles.clear();
+            fingerprint = current;
+        }
+
+        // The fingerprint is read when the cache starts and whenever a handle is reused
+        if (fingerprint == null) {
+            fingerprint = fingerprint();
+        }
+        WebElement element = wait.until(ExpectedConditions.elementToBeClickable(By.id(ID_PREFIX + id)));
+        handles.put(id, element);
+        element.click();
+    }
+
+    public void printStats() {
+        if (taps > 0) {
+            System.out.println("🧭 Bottom nav: " + taps + " taps, " + cachedTaps + " from cached handles");
+        }
+    }
+
+    private String fingerprint() {
+        try {
+            return driver.currentActivity();
+        } catch (Exception e) {
+            return "source:" + Integer.toHexString(driver.getPageSource().hashCode());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package appium;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+// Element scans in a single round trip. One executeScript call returns the
+// tag, visible text, requested attributes, bounds and element reference of
+// every match as one JSON payload; filtering then happens locally instead of
+// calling getText()/getAttribute() once per element over HTTP.
+// (Native Android screens use ScreenSnapshot, the page-source equivalent.)
+public class BulkQuery {
+
+    public record Match(WebElement element, String tag, String text, boolean displayed,
+                        Map<String, String> attributes, Rectangle rect) {
+        public String attribute(String name) {
+            return attributes.get(name);
+        }
+    }
+
+    private static final String SCRIPT =
+        "var names = arguments[1];"
+        + "return Array.prototype.map.call(document.querySelectorAll(arguments[0]), function (e) {"
+        + "  var r = e.getBoundingClientRect();"
+        + "  var style = window.getComputedStyle(e);"
+        + "  var attrs = {};"
+        + "  names.forEach(function (n) { attrs[n] = e.getAttribute(n); });"
+        + "  return {element: e, tag: e.tagName.toLowerCase(), text: (e.innerText || '').trim(),"
+        + "          displayed: r.width > 0 && r.height > 0 && style.visibility !== 'hidden' && style.display !== 'none',"
+        + "          attributes: attrs, x: r.left, y: r.top, width: r.width, height: r.height};"
+        + "});";
+
+    public static List<Match> select(WebDriver driver, String cssSelector, String... attributeNames) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT, cssSelector, List.of(attributeNames));
+        List<Match> matches = new ArrayList<>();
+        if (!(raw instanceof List<?> rows)) {
+            return matches;
+        }
+        for (Object row : rows) {
+            Map<?, ?> fields = (Map<?, ?>) row;
+            Map<String, String> attributes = new LinkedHashMap<>();
+            if (fields.get("attributes") instanceof Map<?, ?> attrs) {
+                for (Map.Entry<?, ?> entry : attrs.entrySet()) {
+                    attributes.put(String.valueOf(entry.getKey()), entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+                }
+            }
+            matches.add(new Match(
+                (WebElement) fields.get("element"),
+                String.valueOf(fields.get("tag")),
+                fields.get("text") == null ? "" : String.valueOf(fields.get("text")),
+                Boolean.TRUE.equals(fields.get("displayed")),
+                attributes,
+                new Rectangle(number(fields.get("x")), number(fields.get("y")),
+                    number(fields.get("height")), number(fields.get("width")))));
+        }
+        return matches;
+    }
+
+    // First match accepted by the filter, or null
+    public static Match first(WebDriver driver, String cssSelector, Predicate<Match> filter, String... attributeNames) {
+        for (Match match : select(driver, cssSelector, attributeNames)) {
+            if (filter.test(match)) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private static int number(Object value) {
+        return value instanceof Number n ? (int) Math.round(n.doubleValue()) : 0;
+    }
+}
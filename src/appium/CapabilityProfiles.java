@@ -0,0 +1,371 @@
+package appium;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+// Named start-up profiles (cold-install, warm-noReset, fast-start, ...) loaded
+// from capability-profiles.properties, so every runner builds its
+// DesiredCapabilities the same way instead of each keeping its own list.
+// Profiles are validated when the file is loaded: unknown capability names,
+// wrong value types, device- or app-specific keys, broken "extends" chains and
+// contradicting reset flags are rejected before any session is attempted.
+//
+// Every cold session start is timed per device and profile and kept in
+// .session-start.properties; -Dcapability.profile=auto then picks the fastest
+// profile whose last start on that device succeeded.
+//
+// Usage:
+//   CapabilityProfiles [list | show <profile> | stats]
+public class CapabilityProfiles {
+    public static final String AUTO = "auto";
+
+    private static final Path PROFILE_FILE = Paths.get(System.getProperty("capability.profiles", "src/appium/capability-profiles.properties"));
+    private static final Path STATS_FILE = Paths.get(System.getProperty("capability.stats", ".session-start.properties"));
+    private static final String VENDOR_PREFIX = "appium:";
+
+    // W3C capabilities, sent without a vendor prefix
+    private static final Set<String> STANDARD_CAPS = Set.of("platformName", "browserName", "browserVersion",
+        "acceptInsecureCerts", "pageLoadStrategy", "proxy", "setWindowRect", "timeouts", "unhandledPromptBehavior");
+    private static final Set<String> BOOLEAN_CAPS = Set.of("noReset", "fullReset", "autoGrantPermissions",
+        "skipServerInstallation", "skipDeviceInitialization", "skipLogcatCapture", "ignoreHiddenApiPolicyError",
+        "allowTestPackages", "skipUnlock", "disableIdLocatorAutocompletion", "shouldTerminateApp", "forceAppLaunch",
+        "ensureWebviewsHavePages", "disableWindowAnimation", "dontStopAppOnReset", "enforceAppInstall", "autoLaunch");
+    private static final Set<String> NUMBER_CAPS = Set.of("newCommandTimeout", "androidInstallTimeout", "adbExecTimeout",
+        "androidDeviceReadyTimeout", "uiautomator2ServerLaunchTimeout", "uiautomator2ServerInstallTimeout", "appWaitDuration");
+    private static final Set<String> STRING_CAPS = Set.of("platformName", "deviceName", "automationName", "platformVersion",
+        "appWaitActivity", "language", "locale");
+    // The runner knows the app, Device knows the udid and ports
+    private static final Set<String> RUNNER_CAPS = Set.of("app", "appPackage", "appActivity", "udid", "systemPort",
+        "chromeDriverPort", "chromedriverPorts");
+    private static final Set<String> META_KEYS = Set.of("extends", "abstract", "description");
+
+    private static CapabilityProfiles shared;
+
+    public record Profile(String name, String description, Map<String, Object> capabilities) {
+        // Profile capabilities plus the app under test; the caller applies the Device on top
+        public DesiredCapabilities toCapabilities(File app, String appPackage) {
+            DesiredCapabilities cap = new DesiredCapabilities();
+            capabilities.forEach(cap::setCapability);
+            if (app != null) {
+                cap.setCapability(VENDOR_PREFIX + "app", app.getAbsolutePath());
+            }
+            cap.setCapability(VENDOR_PREFIX + "appPackage", appPackage);
+            return cap;
+        }
+    }
+
+    // Measured cold starts of one profile on one device
+    private record StartStats(int starts, int failures, long totalMs, long minMs, boolean lastOk) {
+        static StartStats parse(String value) {
+            String[] parts = value.split(",");
+            return new StartStats(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Long.parseLong(parts[2]), Long.parseLong(parts[3]), Boolean.parseBoolean(parts[4]));
+        }
+
+        StartStats plus(long elapsedMs, boolean ok) {
+            return ok
+                ? new StartStats(starts + 1, failures, totalMs + elapsedMs, starts == 0 ? elapsedMs : Math.min(minMs, elapsedMs), true)
+                : new StartStats(starts, failures + 1, totalMs, minMs, false);
+        }
+
+        long averageMs() {
+            return starts == 0 ? 0 : totalMs / starts;
+        }
+
+        @Override
+        public String toString() {
+            return starts + "," + failures + "," + totalMs + "," + minMs + "," + lastOk;
+        }
+    }
+
+    private final Map<String, Profile> profiles;
+    private final Properties stats = loadStats();
+
+    private CapabilityProfiles(Map<String, Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public static synchronized CapabilityProfiles shared() {
+        if (shared == null) {
+            shared = load(PROFILE_FILE);
+        }
+        return shared;
+    }
+
+    public static CapabilityProfiles load(Path file) {
+        Properties raw = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            raw.load(in);
+        } catch (IOException e) {
+            throw new RuntimeException("❌ Cannot read capability profiles " + file.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+
+        // profile -> its own keys, before inheritance
+        Map<String, Map<String, String>> declared = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(raw.stringPropertyNames())) {
+            int dot = key.indexOf('.');
+            if (dot <= 0 || dot == key.length() - 1) {
+                throw new IllegalArgumentException("❌ Malformed key '" + key + "' in " + file + ", expected <profile>.<capability>");
+            }
+            declared.computeIfAbsent(key.substring(0, dot), k -> new LinkedHashMap<>())
+                .put(key.substring(dot + 1), raw.getProperty(key).trim());
+        }
+
+        Set<String> problems = new LinkedHashSet<>();
+        Map<String, Profile> profiles = new LinkedHashMap<>();
+        for (String name : declared.keySet()) {
+            Map<String, Object> capabilities = resolve(name, declared, new ArrayDeque<>(), problems);
+            if (capabilities == null || Boolean.parseBoolean(declared.get(name).get("abstract"))) {
+                continue;
+            }
+            validate(name, capabilities, problems);
+            profiles.put(name, new Profile(name, declared.get(name).getOrDefault("description", ""),
+                Collections.unmodifiableMap(capabilities)));
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("❌ Invalid capability profiles in " + file + ":\n  - " + String.join("\n  - ", problems));
+        }
+        return new CapabilityProfiles(profiles);
+    }
+
+    // Inherited capabilities first, own ones override; null when the chain is broken
+    private static Map<String, Object> resolve(String name, Map<String, Map<String, String>> declared,
+                                               Deque<String> chain, Set<String> problems) {
+        if (chain.contains(name)) {
+            problems.add("'extends' cycle " + String.join(" -> ", chain) + " -> " + name);
+            return null;
+        }
+        Map<String, String> own = declared.get(name);
+        if (own == null) {
+            problems.add("'" + chain.peekLast() + "' extends unknown profile '" + name + "'");
+            return null;
+        }
+
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        String parent = own.get("extends");
+        if (parent != null) {
+            chain.addLast(name);
+            Map<String, Object> inherited = resolve(parent, declared, chain, problems);
+            chain.removeLast();
+            if (inherited == null) {
+                return null;
+            }
+            capabilities.putAll(inherited);
+        }
+        for (Map.Entry<String, String> entry : own.entrySet()) {
+            if (META_KEYS.contains(entry.getKey())) {
+                continue;
+            }
+            String capability = capabilityName(entry.getKey());
+            Object value = parseValue(name, entry.getKey(), entry.getValue(), problems);
+            if (capability != null && value != null) {
+                capabilities.put(capability, value);
+            } else if (capability == null) {
+                problems.add(name + ": unknown capability '" + entry.getKey() + "' (write appium\\:" + entry.getKey()
+                    + " to pass it through unchecked)");
+            }
+        }
+        return capabilities;
+    }
+
+    // Wire name with vendor prefix, or null when the capability is not known
+    private static String capabilityName(String key) {
+        if (key.contains(":")) {
+            // Explicitly prefixed, passed through as written
+            return key;
+        }
+        if (STANDARD_CAPS.contains(key)) {
+            return key;
+        }
+        boolean known = BOOLEAN_CAPS.contains(key) || NUMBER_CAPS.contains(key) || STRING_CAPS.contains(key)
+            || RUNNER_CAPS.contains(key);
+        return known ? VENDOR_PREFIX + key : null;
+    }
+
+    private static Object parseValue(String profile, String key, String value, Set<String> problems) {
+        String bare = key.startsWith(VENDOR_PREFIX) ? key.substring(VENDOR_PREFIX.length()) : key;
+        if (RUNNER_CAPS.contains(bare)) {
+            problems.add(profile + ": '" + key + "' is set by the runner or Device, not by a profile");
+            return null;
+        }
+        if (BOOLEAN_CAPS.contains(bare)) {
+            if (!value.equals("true") && !value.equals("false")) {
+                problems.add(profile + ": " + key + " must be true or false, got '" + value + "'");
+                return null;
+            }
+            return Boolean.parseBoolean(value);
+        }
+        if (NUMBER_CAPS.contains(bare)) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number >= 0) {
+                    return number;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            problems.add(profile + ": " + key + " must be a non-negative whole number, got '" + value + "'");
+            return null;
+        }
+        if (value.equals("true") || value.equals("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        return value;
+    }
+
+    private static void validate(String name, Map<String, Object> capabilities, Set<String> problems) {
+        for (String required : List.of("platformName", VENDOR_PREFIX + "automationName")) {
+            if (!capabilities.containsKey(required)) {
+                problems.add(name + ": " + required + " is missing");
+            }
+        }
+        if (Boolean.TRUE.equals(capabilities.get(VENDOR_PREFIX + "noReset"))
+            && Boolean.TRUE.equals(capabilities.get(VENDOR_PREFIX + "fullReset"))) {
+            problems.add(name + ": noReset and fullReset cannot both be true");
+        }
+        if (Boolean.TRUE.equals(capabilities.get(VENDOR_PREFIX + "fullReset"))
+            && Boolean.TRUE.equals(capabilities.get(VENDOR_PREFIX + "skipServerInstallation"))) {
+            // A full reset wipes the device state the server installation skip relies on
+            problems.add(name + ": fullReset cannot be combined with skipServerInstallation");
+        }
+    }
+
+    public Profile profile(String name) {
+        Profile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("❌ Unknown capability profile '" + name + "', expected one of "
+                + profiles.keySet() + " or " + AUTO);
+        }
+        return profile;
+    }
+
+    // -Dcapability.profile if given, otherwise the runner's default; "auto" picks per device
+    public Profile select(String defaultName, String udid) {
+        String name = System.getProperty("capability.profile", defaultName);
+        if (!AUTO.equals(name)) {
+            return profile(name);
+        }
+        Profile fastest = fastest(udid);
+        if (fastest == null) {
+            System.out.println("📏 No session starts measured on " + udid + " yet, using profile " + defaultName);
+            return profile(defaultName);
+        }
+        System.out.println("⚡ Fastest measured profile on " + udid + ": " + fastest.name() + " (avg "
+            + startStats(udid, fastest.name()).averageMs() + " ms)");
+        return fastest;
+    }
+
+    // Fastest profile whose last start on this device succeeded, or null when none was measured
+    public Profile fastest(String udid) {
+        Profile best = null;
+        long bestMs = Long.MAX_VALUE;
+        for (Profile profile : profiles.values()) {
+            StartStats measured = startStats(udid, profile.name());
+            if (measured != null && measured.lastOk() && measured.starts() > 0 && measured.averageMs() < bestMs) {
+                best = profile;
+                bestMs = measured.averageMs();
+            }
+        }
+        return best;
+    }
+
+    // Called by SessionPool for every cold session start
+    public void recordStart(String udid, String profile, long elapsedMs, boolean ok) {
+        if (ok) {
+            StepMetrics.record("session-start:" + profile, elapsedMs * 1_000_000);
+        }
+        synchronized (stats) {
+            String key = udid + "|" + profile;
+            StartStats previous = startStats(udid, profile);
+            stats.setProperty(key, (previous == null ? new StartStats(0, 0, 0, 0, true) : previous).plus(elapsedMs, ok).toString());
+            saveStats();
+        }
+    }
+
+    private StartStats startStats(String udid, String profile) {
+        synchronized (stats) {
+            String value = stats.getProperty(udid + "|" + profile);
+            try {
+                return value == null ? null : StartStats.parse(value);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    public void printProfiles() {
+        System.out.println("\n=== CAPABILITY PROFILES (" + PROFILE_FILE + ") ===");
+        for (Profile profile : profiles.values()) {
+            System.out.printf(Locale.ROOT, "%-14s %2d capabilities  %s%n",
+                profile.name(), profile.capabilities().size(), profile.description());
+        }
+    }
+
+    public void printStats() {
+        System.out.println("\n=== SESSION START PER DEVICE AND PROFILE ===");
+        System.out.printf(Locale.ROOT, "%-20s %-14s %7s %8s %9s %8s  %s%n", "Device", "Profile", "Starts", "Failures", "Avg ms", "Min ms", "Last");
+        synchronized (stats) {
+            for (String key : new TreeSet<>(stats.stringPropertyNames())) {
+                int bar = key.lastIndexOf('|');
+                StartStats measured = startStats(key.substring(0, bar), key.substring(bar + 1));
+                if (measured != null) {
+                    System.out.printf(Locale.ROOT, "%-20s %-14s %7d %8d %9d %8d  %s%n", key.substring(0, bar), key.substring(bar + 1),
+                        measured.starts(), measured.failures(), measured.averageMs(), measured.minMs(), measured.lastOk() ? "ok" : "FAILED");
+                }
+            }
+        }
+    }
+
+    private void saveStats() {
+        try (OutputStream out = Files.newOutputStream(STATS_FILE)) {
+            stats.store(out, "udid|profile = starts,failures,totalMs,minMs,lastOk");
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write session start stats " + STATS_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static Properties loadStats() {
+        Properties properties = new Properties();
+        if (Files.exists(STATS_FILE)) {
+            try (InputStream in = Files.newInputStream(STATS_FILE)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot read session start stats " + STATS_FILE + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    public static void main(String[] args) {
+        CapabilityProfiles profiles = shared();
+        String command = args.length == 0 ? "list" : args[0];
+        switch (command) {
+            case "list" -> profiles.printProfiles();
+            case "show" -> {
+                Profile profile = profiles.profile(args[1]);
+                System.out.println(profile.name() + ": " + profile.description());
+                profile.capabilities().forEach((key, value) -> System.out.println("  " + key + " = " + value));
+            }
+            case "stats" -> profiles.printStats();
+            default -> throw new IllegalArgumentException("❌ Unknown command " + command);
+        }
+    }
+}
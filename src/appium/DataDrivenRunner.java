@@ -0,0 +1,94 @@
+package appium;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Runs every row of a CSV/JSON test data file through the matching Ecozym
+// flow. Rows are read lazily and fanned out over the device pool, so the input
+// may hold thousands of credential combinations. A row with outcome=failure
+// passes when the flow is rejected (e.g. wrong password) and fails otherwise.
+//
+// Usage:
+//   DataDrivenRunner src/appium/testdata/ecozym_login.csv
+//   DataDrivenRunner cases.json 5cbacd90 emulator-5554@http://127.0.0.1:4724
+//   DataDrivenRunner cases.csv --mock 4
+public class DataDrivenRunner {
+
+    public static void main(String[] args) throws Exception {
+        Path input = Paths.get(args.length > 0 ? args[0] : "src/appium/testdata/ecozym_login.csv");
+        MockAppiumServer mock = null;
+        List<Device> devices = new ArrayList<>();
+
+        try (TestCaseSource source = TestCaseSource.open(input);
+             ResultSink sink = ResultSink.open(ResultSink.newRunFile())) {
+            if (args.length > 1 && args[1].equals("--mock")) {
+                int count = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+                mock = new MockAppiumServer(0, 20);
+                for (int i = 0; i < count; i++) {
+                    devices.add(Device.simulated("mock-device-" + (i + 1), i, mock.url()));
+                }
+            } else if (args.length > 1) {
+                for (int i = 1; i < args.length; i++) {
+                    devices.add(Device.parse(args[i], i - 1));
+                }
+            } else {
+                devices.add(Device.defaultDevice());
+            }
+
+            // Every device gets the current build up front, off the per-scenario critical path
+            ApkInstaller.shared().preinstall(devices, new File("src/appium/ecozym.apk"), "com.ecozym.wastemanagement");
+
+            DeviceScheduler scheduler = new DeviceScheduler(devices, sink);
+            scheduler.runStreaming(scenarios(source));
+        } finally {
+            if (mock != null) {
+                mock.close();
+            }
+        }
+    }
+
+    public static Iterator<DeviceScheduler.Scenario> scenarios(Iterator<TestCase> testCases) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return testCases.hasNext();
+            }
+
+            @Override
+            public DeviceScheduler.Scenario next() {
+                TestCase testCase = testCases.next();
+                return new DeviceScheduler.Scenario(testCase.id(), testCase.name(), testCase.expected(), taskFor(testCase));
+            }
+        };
+    }
+
+    private static DeviceScheduler.DeviceTask taskFor(TestCase testCase) {
+        DeviceScheduler.DeviceTask flow = switch (testCase.flow()) {
+            case "login" -> device -> EcozymAllFitur.runLoginOn(device, testCase);
+            case "fullflow" -> device -> EcozymAllFitur.runFullFlowOn(device, testCase);
+            case "registration" -> device -> EcozymAppiumTest.runRegistrationOn(device, testCase);
+            default -> device -> {
+                throw new IllegalArgumentException("❌ Unknown flow '" + testCase.flow() + "' in " + testCase.id());
+            };
+        };
+        if (testCase.expectSuccess()) {
+            return flow;
+        }
+
+        // Negative case: the app has to refuse the input on screen. Any other
+        // exception (missing view, dead session, bad data) is a real failure.
+        return device -> {
+            try {
+                flow.run(device);
+            } catch (EcozymAllFitur.LoginRejectedException e) {
+                System.out.println("✅ " + testCase.id() + " rejected as expected (" + testCase.expected() + "): " + e.getMessage());
+                return;
+            }
+            throw new RuntimeException("Expected " + testCase.id() + " to be rejected but the flow completed");
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package appium;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.List;
+
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+// One Android device (or simulated device) a worker can drive. Each worker
+// index gets its own systemPort / chromeDriverPort range so UiAutomator2 and
+// Chromedriver instances of parallel sessions never collide.
+public record Device(String udid, int systemPort, int chromeDriverPort, URL serverUrl, boolean simulated) {
+    public static final String DEFAULT_SERVER = "http://127.0.0.1:4723";
+    public static final int BASE_SYSTEM_PORT = 8201;
+    public static final int BASE_CHROMEDRIVER_PORT = 9516;
+
+    // Ports reserved per worker, e.g. worker 1 uses 8211-8220 / 9526-9535
+    public static final int PORT_RANGE = 10;
+
+    // The single device the runners were originally pinned to
+    public static Device defaultDevice() {
+        return forWorker("5cbacd90", 0, DEFAULT_SERVER);
+    }
+
+    public static Device forWorker(String udid, int workerIndex, String serverUrl) {
+        return new Device(udid,
+            BASE_SYSTEM_PORT + workerIndex * PORT_RANGE,
+            BASE_CHROMEDRIVER_PORT + workerIndex * PORT_RANGE,
+            toUrl(serverUrl),
+            false);
+    }
+
+    public static Device simulated(String udid, int workerIndex, String serverUrl) {
+        Device device = forWorker(udid, workerIndex, serverUrl);
+        return new Device(device.udid, device.systemPort, device.chromeDriverPort, device.serverUrl, true);
+    }
+
+    // Parses "udid" or "udid@http://host:port" as given on the command line
+    public static Device parse(String spec, int workerIndex) {
+        int at = spec.indexOf('@');
+        if (at < 0) {
+            return forWorker(spec, workerIndex, DEFAULT_SERVER);
+        }
+        return forWorker(spec.substring(0, at), workerIndex, spec.substring(at + 1));
+    }
+
+    public void applyTo(DesiredCapabilities cap) {
+        cap.setCapability("appium:udid", udid);
+        cap.setCapability("appium:systemPort", systemPort);
+        cap.setCapability("appium:chromeDriverPort", chromeDriverPort);
+        cap.setCapability("appium:chromedriverPorts", List.of(List.of(chromeDriverPort, chromeDriverPort + PORT_RANGE - 1)));
+    }
+
+    private static URL toUrl(String serverUrl) {
+        try {
+            return new URI(serverUrl).toURL();
+        } catch (URISyntaxException | MalformedURLException e) {
+            throw new IllegalArgumentException("❌ Invalid Appium server URL: " + serverUrl, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return udid + " (systemPort " + systemPort + ", chromeDriverPort " + chromeDriverPort + ", " + serverUrl + ")";
+    }
+}
@@ -0,0 +1,227 @@
+package appium;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs Ecozym scenarios in parallel across a pool of devices. Every worker
+// (a virtual thread; the idle-device queue is what bounds concurrency)
+// borrows one device for the duration of a scenario, so each scenario has its
+// own driver, systemPort and chromeDriverPort range.
+//
+// Usage:
+//   DeviceScheduler 5cbacd90 emulator-5554@http://127.0.0.1:4724
+//   DeviceScheduler --mock 4          (four simulated devices on a local mock server)
+public class DeviceScheduler {
+
+    public interface DeviceTask {
+        void run(Device device) throws Exception;
+    }
+
+    // id and expected are optional; data-driven scenarios carry their test case id
+    public record Scenario(String id, String name, String expected, DeviceTask task) {
+        public Scenario(String name, DeviceTask task) {
+            this(null, name, "Scenario completes", task);
+        }
+    }
+
+    public record ScenarioResult(String scenario, String udid, boolean passed, long durationMs, String error) {
+    }
+
+    // Counters only, so a streamed run of any size keeps constant memory
+    public record StreamSummary(int total, int passed, long busyMs, long elapsedMs) {
+    }
+
+    private final List<Device> devices;
+    private final BlockingQueue<Device> idleDevices;
+    private final ResultSink sink;
+    private final AtomicInteger caseCounter = new AtomicInteger();
+
+    public DeviceScheduler(List<Device> devices, ResultSink sink) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("❌ Device pool is empty");
+        }
+        this.devices = List.copyOf(devices);
+        this.idleDevices = new LinkedBlockingQueue<>(devices);
+        this.sink = sink;
+    }
+
+    public List<ScenarioResult> runAll(List<Scenario> scenarios) throws InterruptedException {
+        System.out.println("📱 Scheduling " + scenarios.size() + " scenario(s) across " + devices.size() + " device(s)");
+        long start = System.currentTimeMillis();
+
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<ScenarioResult>> futures = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            futures.add(workers.submit(() -> runOnIdleDevice(scenario)));
+        }
+        workers.shutdown();
+
+        List<ScenarioResult> results = new ArrayList<>();
+        for (Future<ScenarioResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                // runOnIdleDevice never throws; keep the pool going regardless
+                System.err.println("❌ Scheduler worker crashed: " + e.getCause());
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        printSummary(results, elapsed);
+        return results;
+    }
+
+    // Pulls scenarios lazily from the iterator; at most one scenario per device
+    // is in flight, and only pass/fail counters are kept in memory
+    public StreamSummary runStreaming(Iterator<Scenario> scenarios) throws InterruptedException {
+        System.out.println("📱 Streaming scenarios across " + devices.size() + " device(s)");
+        long start = System.currentTimeMillis();
+        AtomicInteger total = new AtomicInteger();
+        AtomicInteger passed = new AtomicInteger();
+        AtomicLong busyMs = new AtomicLong();
+        Semaphore inFlight = new Semaphore(devices.size());
+
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            while (scenarios.hasNext()) {
+                inFlight.acquire();
+                Scenario scenario = scenarios.next();
+                workers.execute(() -> {
+                    try {
+                        ScenarioResult result = runOnIdleDevice(scenario);
+                        total.incrementAndGet();
+                        busyMs.addAndGet(result.durationMs());
+                        if (result.passed()) {
+                            passed.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        StreamSummary summary = new StreamSummary(total.get(), passed.get(), busyMs.get(), System.currentTimeMillis() - start);
+        System.out.println("\n=== DEVICE POOL SUMMARY ===");
+        printTotals(summary.total(), summary.passed(), summary.busyMs(), summary.elapsedMs());
+        return summary;
+    }
+
+    private ScenarioResult runOnIdleDevice(Scenario scenario) throws InterruptedException {
+        Device device = idleDevices.take();
+        long start = System.currentTimeMillis();
+        try {
+            System.out.println("▶️ " + scenario.name() + " on " + device.udid());
+            scenario.task().run(device);
+            long duration = System.currentTimeMillis() - start;
+            System.out.println("✅ " + scenario.name() + " on " + device.udid() + " passed in " + duration + " ms");
+            return record(scenario, new ScenarioResult(scenario.name(), device.udid(), true, duration, ""));
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - start;
+            System.err.println("❌ " + scenario.name() + " on " + device.udid() + " failed: " + e.getMessage());
+            return record(scenario, new ScenarioResult(scenario.name(), device.udid(), false, duration, String.valueOf(e.getMessage())));
+        } finally {
+            idleDevices.put(device);
+        }
+    }
+
+    // Streams the result to the run file as soon as the scenario completes
+    private ScenarioResult record(Scenario scenario, ScenarioResult result) {
+        if (sink == null) {
+            return result;
+        }
+        String id = scenario.id() != null ? scenario.id() : String.format("SC%03d", caseCounter.incrementAndGet());
+        String description = result.scenario() + " on device " + result.udid();
+        try {
+            sink.append(result.passed()
+                ? TestResult.pass(id, result.scenario(), description, scenario.expected(), "Completed in " + result.durationMs() + " ms")
+                : TestResult.fail(id, result.scenario(), description, scenario.expected(), "Failed after " + result.durationMs() + " ms", result.error()),
+                result.durationMs());
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write result for " + result.scenario() + ": " + e.getMessage());
+        }
+        return result;
+    }
+
+    private void printSummary(List<ScenarioResult> results, long elapsedMs) {
+        long passed = results.stream().filter(ScenarioResult::passed).count();
+        long busyMs = results.stream().mapToLong(ScenarioResult::durationMs).sum();
+
+        System.out.println("\n=== DEVICE POOL SUMMARY ===");
+        for (ScenarioResult result : results) {
+            System.out.println("  " + (result.passed() ? "✅" : "❌") + " " + result.scenario()
+                + " [" + result.udid() + "] " + result.durationMs() + " ms"
+                + (result.passed() ? "" : " - " + result.error()));
+        }
+        printTotals(results.size(), passed, busyMs, elapsedMs);
+    }
+
+    private void printTotals(long total, long passed, long busyMs, long elapsedMs) {
+        double perMinute = elapsedMs == 0 ? 0 : total * 60000.0 / elapsedMs;
+        System.out.println("Devices: " + devices.size());
+        System.out.println("Passed: " + passed + "/" + total);
+        System.out.println("Wall clock: " + elapsedMs + " ms, device busy time: " + busyMs + " ms");
+        System.out.printf("Throughput: %.2f scenarios/min, parallel speed-up: %.2fx%n",
+            perMinute, elapsedMs == 0 ? 0 : (double) busyMs / elapsedMs);
+    }
+
+    // One login, full-flow and registration scenario per device
+    public static List<Scenario> ecozymScenarios(int rounds) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 1; i <= rounds; i++) {
+            scenarios.add(new Scenario("Login #" + i, EcozymAllFitur::runLoginOn));
+            scenarios.add(new Scenario("Full flow #" + i, EcozymAllFitur::runFullFlowOn));
+            scenarios.add(new Scenario("Registration #" + i, EcozymAppiumTest::runRegistrationOn));
+        }
+        return scenarios;
+    }
+
+    public static void main(String[] args) throws Exception {
+        MockAppiumServer mock = null;
+        List<Device> devices = new ArrayList<>();
+
+        try (ResultSink sink = ResultSink.open(ResultSink.newRunFile())) {
+            if (args.length > 0 && args[0].equals("--mock")) {
+                int count = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+                mock = new MockAppiumServer(0, 20);
+                for (int i = 0; i < count; i++) {
+                    devices.add(Device.simulated("mock-device-" + (i + 1), i, mock.url()));
+                }
+            } else if (args.length > 0) {
+                for (int i = 0; i < args.length; i++) {
+                    devices.add(Device.parse(args[i], i));
+                }
+            } else {
+                devices.add(Device.defaultDevice());
+            }
+
+            // Every device gets the current build up front, off the per-scenario critical path
+            ApkInstaller.shared().preinstall(devices, new File("src/appium/ecozym.apk"), "com.ecozym.wastemanagement");
+
+            DeviceScheduler scheduler = new DeviceScheduler(devices, sink);
+            scheduler.runAll(ecozymScenarios(devices.size()));
+        } finally {
+            if (mock != null) {
+                mock.close();
+            }
+        }
+    }
+}
@@ -1,106 +1,175 @@
 package appium;
 
 import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidElement;
-import io.appium.java_client.remote.MobileCapabilityType;
-import io.appium.java_client.touch.offset.PointOption;
-import io.appium.java_client.TouchAction;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 public class EcozymAllFitur {
-    private static AndroidDriver<AndroidElement> driver;
-    private static WebDriverWait wait;
+    // One driver per worker thread so several devices can run flows in parallel
+    private static final ThreadLocal<AndroidDriver<AndroidElement>> drivers = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> waits = new ThreadLocal<>();
+    private static final ThreadLocal<TestCase> testCases = new ThreadLocal<>();
+    private static final ThreadLocal<BottomNav> bottomNavs = new ThreadLocal<>();
     
-    // Test data constants
-    private static final String TEST_EMAIL = "user@gmail.com";
-    private static final String TEST_PASSWORD = "12345678";
+    // Test data used when no data-driven row is bound (standalone main)
+    private static final TestCase DEFAULT_CASE = new TestCase("FLOW001", "Full Flow Test",
+        "fullflow", "Log in, visit every screen and log out", "All screens reachable and logout confirmed",
+        true, Map.of("email", "user@gmail.com", "password", "12345678"));
+    
+    // Views only the dashboard has, and wording of the login screen's error and validation messages
+    private static final Set<String> DASHBOARD_MARKERS = Set.of("bottomNav", "navHome", "tvGreeting");
+    private static final Pattern LOGIN_ERROR = Pattern.compile(
+        "(?i).*(invalid|incorrect|wrong|required|empty|must not|cannot be|failed|not registered|salah|wajib|tidak valid).*");
+    
+    // The app refused the login and said so on screen; negative test cases expect exactly this
+    public static final class LoginRejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        LoginRejectedException(String message) {
+            super(message);
+        }
+    }
     
     public static void main(String[] args) {
+        TestResult result;
         try {
             setupDriver();
             runEcozymFullFlowTest();
             System.out.println("✅ Test completed successfully!");
+            result = TestResult.pass("FLOW001", "Full Flow Test", "Log in, visit every screen and log out",
+                "All screens reachable and logout confirmed", "Full flow completed");
         } catch (Exception e) {
             System.err.println("❌ Test failed with error: " + e.getMessage());
             e.printStackTrace();
+            result = TestResult.fail("FLOW001", "Full Flow Test", "Log in, visit every screen and log out",
+                "All screens reachable and logout confirmed", "Full flow aborted", e.getMessage());
         } finally {
             cleanupDriver();
         }
+        recordResult(result);
     }
     
-    private static void setupDriver() throws MalformedURLException, URISyntaxException {
-        System.out.println("🚀 Setting up Appium driver for Ecozym app...");
-        
-        DesiredCapabilities cap = new DesiredCapabilities();
+    private static void recordResult(TestResult result) {
+        try (ResultSink sink = ResultSink.open(ResultSink.newRunFile())) {
+            sink.append(result);
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write test result: " + e.getMessage());
+        }
+    }
+    
+    // Entry points used by DeviceScheduler: full flow and login-only flow on one device
+    public static void runFullFlowOn(Device device) throws Exception {
+        runFullFlowOn(device, DEFAULT_CASE);
+    }
+    
+    public static void runLoginOn(Device device) throws Exception {
+        runLoginOn(device, DEFAULT_CASE);
+    }
+    
+    // Login followed by every bottom-nav screen, and login followed by logout
+    public static void runNavigationOn(Device device) throws Exception {
+        runOn(device, DEFAULT_CASE, EcozymAllFitur::runEcozymNavigationTest);
+    }
+    
+    public static void runLogoutOn(Device device) throws Exception {
+        runOn(device, DEFAULT_CASE, EcozymAllFitur::runEcozymLogoutTest);
+    }
+    
+    // Data-driven variants: the row's email/password replace the defaults
+    public static void runFullFlowOn(Device device, TestCase testCase) throws Exception {
+        runOn(device, testCase, EcozymAllFitur::runEcozymFullFlowTest);
+    }
+    
+    public static void runLoginOn(Device device, TestCase testCase) throws Exception {
+        runOn(device, testCase, EcozymAllFitur::runEcozymLoginTest);
+    }
+    
+    private static void runOn(Device device, TestCase testCase, StepMetrics.Step<InterruptedException> flow) throws Exception {
+        testCases.set(testCase);
+        try {
+            setupDriver(device);
+            flow.run();
+        } finally {
+            cleanupDriver();
+            testCases.remove();
+        }
+    }
+    
+    private static AndroidDriver<AndroidElement> driver() {
+        return drivers.get();
+    }
+    
+    private static WebDriverWait driverWait() {
+        return waits.get();
+    }
+    
+    // Bottom navigation page object, one per driver session
+    private static BottomNav bottomNav() {
+        BottomNav nav = bottomNavs.get();
+        if (nav == null) {
+            nav = new BottomNav(driver(), driverWait());
+            bottomNavs.set(nav);
+        }
+        return nav;
+    }
+    
+    private static String testData(String key) {
+        TestCase testCase = testCases.get();
+        return (testCase != null ? testCase : DEFAULT_CASE).value(key, DEFAULT_CASE.value(key, ""));
+    }
+    
+    private static void setupDriver() {
+        setupDriver(Device.defaultDevice());
+    }
+    
+    private static void setupDriver(Device device) {
+        System.out.println("🚀 Setting up Appium driver for Ecozym app on " + device + "...");
         
         // APK setup
         File appDir = new File("src/appium");
         File app = new File(appDir, "ecozym.apk");
         
-        if (!app.exists()) {
+        if (!app.exists() && !device.simulated()) {
             throw new RuntimeException("❌ APK file not found at: " + app.getAbsolutePath());
         }
         
         System.out.println("📱 APK path: " + app.getAbsolutePath());
         
-        // Core capabilities for Appium 2.0+
-        cap.setCapability(MobileCapabilityType.DEVICE_NAME, "Android Device");
-        cap.setCapability("appium:udid", "5cbacd90");
-        cap.setCapability(MobileCapabilityType.APP, app.getAbsolutePath());
-        cap.setCapability(MobileCapabilityType.AUTOMATION_NAME, "UiAutomator2");
-        cap.setCapability(MobileCapabilityType.PLATFORM_NAME, "Android");
-        cap.setCapability("appium:appPackage", "com.ecozym.wastemanagement");
-        
-        // FIX: Remove appActivity to let Appium auto-detect the main activity
-        // OR use the correct activity name without the dot prefix
-        // cap.setCapability("appium:appActivity", "MainActivity"); // Try this if auto-detection fails
-        
-        cap.setCapability("appium:noReset", true);
-        cap.setCapability("appium:fullReset", false);
+        // Shared start-up profile from capability-profiles.properties (-Dcapability.profile overrides)
+        CapabilityProfiles.Profile profile = CapabilityProfiles.shared().select("fast-start", device.udid());
+        System.out.println("🧩 Capability profile: " + profile.name());
+        DesiredCapabilities cap = profile.toCapabilities(app, "com.ecozym.wastemanagement");
         
-        // Performance optimizations
-        cap.setCapability("appium:skipServerInstallation", true);
-        cap.setCapability("appium:skipDeviceInitialization", true);
-        cap.setCapability("appium:skipLogcatCapture", true);
-        cap.setCapability("appium:ignoreHiddenApiPolicyError", true);
-        cap.setCapability("appium:allowTestPackages", true);
+        // Real device settings: udid and per-worker systemPort/chromeDriverPort
+        device.applyTo(cap);
         
-        // Real device settings
-        cap.setCapability("appium:systemPort", 8201);
-        cap.setCapability("appium:chromeDriverPort", 9516);
+        // Installed once per build ahead of the session instead of through the app capability
+        ApkInstaller.shared().applyTo(cap, device, app, "com.ecozym.wastemanagement");
         
-        // App management
-        cap.setCapability("appium:autoGrantPermissions", true);
-        
-        // Timeout configurations
-        cap.setCapability("appium:newCommandTimeout", 300);
-        cap.setCapability("appium:androidInstallTimeout", 120000);
-        cap.setCapability("appium:adbExecTimeout", 40000);
-        cap.setCapability("appium:androidDeviceReadyTimeout", 60);
-        
-        // Additional optimizations
-        cap.setCapability("appium:skipUnlock", true);
-        cap.setCapability("appium:disableIdLocatorAutocompletion", true);
-        
-        URL serverUrl = new URI("http://127.0.0.1:4723").toURL();
-        driver = new AndroidDriver<>(serverUrl, cap);
-        wait = new WebDriverWait(driver, 20);
+        // Refuses at once when this server or device was just found broken
+        AppReadiness.requireServer(device.serverUrl(), device.udid());
+        drivers.set(SessionPool.shared().acquire(device.serverUrl(), cap, profile.name()));
+        // Waits wake on the device's activity/window events instead of every 500 ms
+        ScreenEvents.watch(driver(), device);
+        waits.set(ScreenEvents.waitFor(driver(), 20));
+        FailureArtifacts.bind(driver());
         
         // Wait for app to load
         try {
-            Thread.sleep(5000);
+            UiWait.settle(driver(), "App launch", 5000);
         } catch (InterruptedException e) {
             System.err.println("❌ Interrupted while waiting for app to load: " + e.getMessage());
             Thread.currentThread().interrupt();
@@ -108,45 +177,105 @@ public class EcozymAllFitur {
         System.out.println("✅ Driver setup completed successfully!");
     }
     
+    private static void runEcozymLoginTest() throws InterruptedException {
+        System.out.println("📋 Starting Ecozym login test...");
+        
+        AppReadiness.requireApp(driver(), "com.ecozym.wastemanagement", By.id("com.ecozym.wastemanagement:id/btn_signIn"));
+        
+        try {
+            StepMetrics.time("clickSignInButton", EcozymAllFitur::clickSignInButton);
+            StepMetrics.time("fillLoginCredentials", EcozymAllFitur::fillLoginCredentials);
+            StepMetrics.time("clickLogInButton", EcozymAllFitur::clickLogInButton);
+            StepMetrics.time("verifyLoginOutcome", EcozymAllFitur::verifyLoginOutcome);
+            System.out.println("🎉 Login flow completed!");
+            
+        } catch (LoginRejectedException e) {
+            // A refused login is the outcome under test, not a broken run
+            throw e;
+        } catch (Exception e) {
+            System.err.println("❌ Test execution failed: " + e.getMessage());
+            captureFailure();
+            throw e;
+        }
+    }
+    
+    private static void runEcozymNavigationTest() throws InterruptedException {
+        runEcozymLoginTest();
+        System.out.println("📋 Starting Ecozym navigation test...");
+        
+        try {
+            StepMetrics.time("navigateToWastePickupTracking", EcozymAllFitur::navigateToWastePickupTracking);
+            StepMetrics.time("navigateToRegisterNewWaste", EcozymAllFitur::navigateToRegisterNewWaste);
+            StepMetrics.time("navigateToReport", EcozymAllFitur::navigateToReport);
+            StepMetrics.time("navigateToWastePricingGuide", EcozymAllFitur::navigateToWastePricingGuide);
+            StepMetrics.time("navigateToProfile", EcozymAllFitur::navigateToProfile);
+            System.out.println("🎉 Navigation flow completed!");
+            
+        } catch (Exception e) {
+            System.err.println("❌ Test execution failed: " + e.getMessage());
+            captureFailure();
+            throw e;
+        }
+    }
+    
+    private static void runEcozymLogoutTest() throws InterruptedException {
+        runEcozymLoginTest();
+        System.out.println("📋 Starting Ecozym logout test...");
+        
+        try {
+            StepMetrics.time("navigateToProfile", EcozymAllFitur::navigateToProfile);
+            StepMetrics.time("clickLogoutButton", EcozymAllFitur::clickLogoutButton);
+            System.out.println("🎉 Logout flow completed!");
+            
+        } catch (Exception e) {
+            System.err.println("❌ Test execution failed: " + e.getMessage());
+            captureFailure();
+            throw e;
+        }
+    }
+    
     private static void runEcozymFullFlowTest() throws InterruptedException {
         System.out.println("📋 Starting Ecozym full flow test...");
         
-        // Wait for main element to ensure app is loaded
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.id("com.ecozym.wastemanagement:id/btn_signIn")));
+        // Fail fast unless the app is up on the sign-in screen
+        AppReadiness.requireApp(driver(), "com.ecozym.wastemanagement", By.id("com.ecozym.wastemanagement:id/btn_signIn"));
         
         try {
             // Step 1: Click Sign In button
-            clickSignInButton();
+            StepMetrics.time("clickSignInButton", EcozymAllFitur::clickSignInButton);
             
             // Step 2: Fill login credentials
-            fillLoginCredentials();
+            StepMetrics.time("fillLoginCredentials", EcozymAllFitur::fillLoginCredentials);
             
             // Step 3: Click Log In button
-            clickLogInButton();
+            StepMetrics.time("clickLogInButton", EcozymAllFitur::clickLogInButton);
+            StepMetrics.time("verifyLoginOutcome", EcozymAllFitur::verifyLoginOutcome);
             
             // Step 4: Navigate to Waste Pickup Tracking
-            navigateToWastePickupTracking();
+            StepMetrics.time("navigateToWastePickupTracking", EcozymAllFitur::navigateToWastePickupTracking);
             
             // Step 5: Navigate to Register New Waste
-            navigateToRegisterNewWaste();
+            StepMetrics.time("navigateToRegisterNewWaste", EcozymAllFitur::navigateToRegisterNewWaste);
             
             // Step 6: Navigate to Report
-            navigateToReport();
+            StepMetrics.time("navigateToReport", EcozymAllFitur::navigateToReport);
             
             // Step 7: Navigate to Waste Pricing Guide
-            navigateToWastePricingGuide();
+            StepMetrics.time("navigateToWastePricingGuide", EcozymAllFitur::navigateToWastePricingGuide);
             
             // Step 8: Navigate to Profile
-            navigateToProfile();
+            StepMetrics.time("navigateToProfile", EcozymAllFitur::navigateToProfile);
             
             // Step 9: Click Logout button and confirm
-            clickLogoutButton();
+            StepMetrics.time("clickLogoutButton", EcozymAllFitur::clickLogoutButton);
             
             System.out.println("🎉 Full test flow completed!");
             
+        } catch (LoginRejectedException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ Test execution failed: " + e.getMessage());
-            debugCurrentScreen();
+            captureFailure();
             throw e;
         }
     }
@@ -154,14 +283,14 @@ public class EcozymAllFitur {
     private static void clickSignInButton() throws InterruptedException {
         System.out.println("🔍 Looking for Sign In button...");
         try {
-            WebElement signInButton = wait.until(
+            WebElement signInButton = driverWait().until(
                 ExpectedConditions.elementToBeClickable(
                     By.id("com.ecozym.wastemanagement:id/btn_signIn")
                 )
             );
             System.out.println("✅ Found Sign In button, clicking...");
             signInButton.click();
-            Thread.sleep(2000);
+            UiWait.settle(driver(), "Sign In", 2000);
         } catch (Exception e) {
             System.err.println("❌ Failed to click Sign In button: " + e.getMessage());
             debugCurrentScreen();
@@ -174,51 +303,42 @@ public class EcozymAllFitur {
         
         try {
             // Try to find email field by different methods
-            WebElement emailField = null;
-            try {
+            String strategy = LocatorChain.of(driver(), "EcozymAllFitur.emailField", 20)
                 // Method 1: Try by resource-id
-                emailField = wait.until(
+                .then("resource-id", probe -> typeInto(probe.until(
                     ExpectedConditions.presenceOfElementLocated(
                         By.id("com.ecozym.wastemanagement:id/etEmail")
                     )
-                );
-            } catch (Exception e1) {
-                try {
-                    // Method 2: Try by hint text
-                    emailField = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(
-                            By.xpath("//android.widget.EditText[@text='Email' or contains(@hint, 'Email') or contains(@hint, 'email')]")
-                        )
-                    );
-                } catch (Exception e2) {
-                    // Method 3: Try first EditText
-                    System.out.println("⚠️ Email field not found by ID or hint, trying first EditText...");
-                    List<AndroidElement> editTexts = driver.findElementsByClassName("android.widget.EditText");
-                    if (!editTexts.isEmpty()) {
-                        emailField = editTexts.get(0);
+                ), testData("email")))
+                // Method 2: Try by hint text
+                .then("xpath-hint", probe -> typeInto(probe.until(
+                    ExpectedConditions.presenceOfElementLocated(
+                        By.xpath("//android.widget.EditText[@text='Email' or contains(@hint, 'Email') or contains(@hint, 'email')]")
+                    )
+                ), testData("email")))
+                // Method 3: Try first EditText
+                .then("first-edittext", probe -> {
+                    List<AndroidElement> editTexts = driver().findElementsByClassName("android.widget.EditText");
+                    if (editTexts.isEmpty()) {
+                        throw new RuntimeException("❌ Email field not found by any method");
                     }
-                }
-            }
+                    typeInto(editTexts.get(0), testData("email"));
+                })
+                .run();
             
-            if (emailField == null) {
-                throw new RuntimeException("❌ Email field not found by any method");
-            }
-            
-            emailField.clear();
-            emailField.sendKeys(TEST_EMAIL);
-            System.out.println("✅ Email entered successfully");
-            Thread.sleep(1000);
+            System.out.println("✅ Email entered successfully using " + strategy);
+            UiWait.settle(driver(), "Email input", 1000);
             
             // Fill password field
-            WebElement passwordField = wait.until(
+            WebElement passwordField = driverWait().until(
                 ExpectedConditions.presenceOfElementLocated(
                     By.id("com.ecozym.wastemanagement:id/etPassword")
                 )
             );
             passwordField.clear();
-            passwordField.sendKeys(TEST_PASSWORD);
+            passwordField.sendKeys(testData("password"));
             System.out.println("✅ Password entered successfully");
-            Thread.sleep(1000);
+            UiWait.settle(driver(), "Password input", 1000);
             
         } catch (Exception e) {
             System.err.println("❌ Failed to fill login credentials: " + e.getMessage());
@@ -227,63 +347,91 @@ public class EcozymAllFitur {
         }
     }
     
+    private static void typeInto(WebElement field, String value) {
+        field.clear();
+        field.sendKeys(value);
+    }
+    
     private static void clickLogInButton() throws InterruptedException {
         System.out.println("🔍 Looking for Log In button...");
         try {
             // Try multiple methods to find the login button
-            WebElement logInButton = null;
-            
-            try {
+            String strategy = LocatorChain.of(driver(), "EcozymAllFitur.logInButton", 20)
                 // Method 1: Try by resource-id
-                logInButton = wait.until(
+                .then("resource-id", probe -> probe.until(
                     ExpectedConditions.elementToBeClickable(
                         By.id("com.ecozym.wastemanagement:id/btnLogin")
                     )
-                );
-            } catch (Exception e1) {
-                try {
-                    // Method 2: Try by text
-                    logInButton = wait.until(
-                        ExpectedConditions.elementToBeClickable(
-                            By.xpath("//android.widget.Button[@text='Log In' or @text='LOGIN' or @text='Sign In']")
-                        )
-                    );
-                } catch (Exception e2) {
-                    // Method 3: Use coordinates as fallback
-                    System.out.println("⚠️ Using coordinate-based click for Log In button");
-                    int x = (int) (22.5118 + 244.414 / 2);
-                    int y = (int) (413.252 + 38.5917 / 2);
-                    new TouchAction<>(driver).tap(PointOption.point(x, y)).perform();
-                    System.out.println("✅ Clicked Log In button using coordinates");
-                    Thread.sleep(3000);
-                    return;
-                }
-            }
+                ).click())
+                // Method 2: Try by text
+                .then("xpath-text", probe -> probe.until(
+                    ExpectedConditions.elementToBeClickable(
+                        By.xpath("//android.widget.Button[@text='Log In' or @text='LOGIN' or @text='Sign In']")
+                    )
+                ).click())
+                // Method 3: Tap the center of the button's bounds on this device
+                .lastResort("coordinates", probe -> ScreenGeometry.tap(driver(), "login", "logInButton",
+                    ScreenGeometry.mentioning(null, "btnLogin", "log in", "login").and(ScreenSnapshot.UiNode::clickable),
+                    (int) (22.5118 + 244.414 / 2), (int) (413.252 + 38.5917 / 2)))
+                .run();
             
-            if (logInButton != null) {
-                logInButton.click();
-                System.out.println("✅ Clicked Log In button");
-                Thread.sleep(3000);
-            }
+            System.out.println("✅ Clicked Log In button using " + strategy);
+            UiWait.settle(driver(), "Log In", 3000);
             
         } catch (Exception e) {
             System.err.println("❌ Failed to click Log In button: " + e.getMessage());
+            ScreenGeometry.invalidate(driver(), "login");
             debugCurrentScreen();
             throw new RuntimeException("Cannot locate Log In button", e);
         }
     }
     
+    // Dashboard, or the error/validation message the app shows instead of it
+    private static void verifyLoginOutcome() {
+        System.out.println("🔍 Checking login outcome...");
+        String outcome;
+        try {
+            outcome = ScreenEvents.waitFor(driver(), 10).until(d -> loginOutcome());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("❌ Login outcome unknown: neither the dashboard nor an error message appeared", e);
+        }
+        if (outcome.isEmpty()) {
+            System.out.println("✅ Dashboard reached");
+            return;
+        }
+        System.out.println("🚫 Login rejected: " + outcome);
+        throw new LoginRejectedException(outcome);
+    }
+    
+    // "" on the dashboard, the message text when an error is shown, null while neither is on screen
+    private static String loginOutcome() {
+        ScreenSnapshot screen = ScreenSnapshot.capture(driver());
+        if (screen.first(node -> DASHBOARD_MARKERS.contains(shortId(node))) != null) {
+            return "";
+        }
+        // Toasts never show up in the page source, only through this lookup
+        for (AndroidElement toast : driver().findElementsByXPath("//android.widget.Toast")) {
+            String text = toast.getText();
+            if (text != null && !text.isBlank()) {
+                return text;
+            }
+        }
+        ScreenSnapshot.UiNode error = screen.first(node -> node.text() != null && !node.text().isBlank()
+            && (shortId(node).matches("(?i).*error.*") || LOGIN_ERROR.matcher(node.text()).matches()));
+        return error == null ? null : error.text();
+    }
+    
+    private static String shortId(ScreenSnapshot.UiNode node) {
+        String id = node.resourceId();
+        return id == null ? "" : id.substring(id.indexOf('/') + 1);
+    }
+    
     private static void navigateToWastePickupTracking() throws InterruptedException {
         System.out.println("🚚 Navigating to Waste Pickup Tracking...");
         try {
-            WebElement navTruck = wait.until(
-                ExpectedConditions.elementToBeClickable(
-                    By.id("com.ecozym.wastemanagement:id/navTruck")
-                )
-            );
-            System.out.println("✅ Found Waste Pickup Tracking navigation, clicking...");
-            navTruck.click();
-            Thread.sleep(2000);
+            bottomNav().tap("navTruck");
+            System.out.println("✅ Clicked Waste Pickup Tracking navigation");
+            UiWait.settle(driver(), "Waste Pickup Tracking", 2000);
         } catch (Exception e) {
             System.err.println("❌ Failed to navigate to Waste Pickup Tracking: " + e.getMessage());
             debugCurrentScreen();
@@ -294,14 +442,9 @@ public class EcozymAllFitur {
     private static void navigateToRegisterNewWaste() throws InterruptedException {
         System.out.println("🗑️ Navigating to Register New Waste...");
         try {
-            WebElement navTrash = wait.until(
-                ExpectedConditions.elementToBeClickable(
-                    By.id("com.ecozym.wastemanagement:id/navTrash")
-                )
-            );
-            System.out.println("✅ Found Register New Waste navigation, clicking...");
-            navTrash.click();
-            Thread.sleep(2000);
+            bottomNav().tap("navTrash");
+            System.out.println("✅ Clicked Register New Waste navigation");
+            UiWait.settle(driver(), "Register New Waste", 2000);
         } catch (Exception e) {
             System.err.println("❌ Failed to navigate to Register New Waste: " + e.getMessage());
             debugCurrentScreen();
@@ -313,14 +456,9 @@ public class EcozymAllFitur {
         System.out.println("📊 Navigating to Report...");
         try {
             // Note: This seems to use the same ID as Waste Pickup Tracking - verify this is correct
-            WebElement navReport = wait.until(
-                ExpectedConditions.elementToBeClickable(
-                    By.id("com.ecozym.wastemanagement:id/navTruck")
-                )
-            );
-            System.out.println("✅ Found Report navigation, clicking...");
-            navReport.click();
-            Thread.sleep(2000);
+            bottomNav().tap("navTruck");
+            System.out.println("✅ Clicked Report navigation");
+            UiWait.settle(driver(), "Report", 2000);
         } catch (Exception e) {
             System.err.println("❌ Failed to navigate to Report: " + e.getMessage());
             debugCurrentScreen();
@@ -331,14 +469,9 @@ public class EcozymAllFitur {
     private static void navigateToWastePricingGuide() throws InterruptedException {
         System.out.println("📖 Navigating to Waste Pricing Guide...");
         try {
-            WebElement navArticle = wait.until(
-                ExpectedConditions.elementToBeClickable(
-                    By.id("com.ecozym.wastemanagement:id/navArticle")
-                )
-            );
-            System.out.println("✅ Found Waste Pricing Guide navigation, clicking...");
-            navArticle.click();
-            Thread.sleep(2000);
+            bottomNav().tap("navArticle");
+            System.out.println("✅ Clicked Waste Pricing Guide navigation");
+            UiWait.settle(driver(), "Waste Pricing Guide", 2000);
         } catch (Exception e) {
             System.err.println("❌ Failed to navigate to Waste Pricing Guide: " + e.getMessage());
             debugCurrentScreen();
@@ -349,14 +482,9 @@ public class EcozymAllFitur {
     private static void navigateToProfile() throws InterruptedException {
         System.out.println("👤 Navigating to Profile...");
         try {
-            WebElement btnProfile = wait.until(
-                ExpectedConditions.elementToBeClickable(
-                    By.id("com.ecozym.wastemanagement:id/btnProfile")
-                )
-            );
-            System.out.println("✅ Found Profile navigation, clicking...");
-            btnProfile.click();
-            Thread.sleep(2000);
+            bottomNav().tap("btnProfile");
+            System.out.println("✅ Clicked Profile navigation");
+            UiWait.settle(driver(), "Profile", 2000);
         } catch (Exception e) {
             System.err.println("❌ Failed to navigate to Profile: " + e.getMessage());
             debugCurrentScreen();
@@ -367,25 +495,25 @@ public class EcozymAllFitur {
     private static void clickLogoutButton() throws InterruptedException {
         System.out.println("🔍 Looking for Logout button...");
         try {
-            WebElement logoutButton = wait.until(
+            WebElement logoutButton = driverWait().until(
                 ExpectedConditions.elementToBeClickable(
                     By.id("com.ecozym.wastemanagement:id/btnLogout")
                 )
             );
             System.out.println("✅ Found Logout button, clicking...");
             logoutButton.click();
-            Thread.sleep(2000);
+            UiWait.settle(driver(), "Logout", 2000);
             
             // Confirm logout by clicking YES button
             System.out.println("🔍 Looking for YES button to confirm logout...");
-            WebElement yesButton = wait.until(
+            WebElement yesButton = driverWait().until(
                 ExpectedConditions.elementToBeClickable(
                     By.id("android:id/button1")
                 )
             );
             System.out.println("✅ Found YES button, clicking...");
             yesButton.click();
-            Thread.sleep(2000);
+            UiWait.settle(driver(), "Logout confirmation", 2000);
             
         } catch (Exception e) {
             System.err.println("❌ Failed to click Logout button or YES button: " + e.getMessage());
@@ -394,82 +522,44 @@ public class EcozymAllFitur {
         }
     }
     
+    // Listing of the current screen, for logs only
     private static void debugCurrentScreen() {
         try {
-            System.out.println("\n=== 🔍 DEBUG: Current Screen Elements ===");
-            
-            String pageSource = driver.getPageSource();
-            System.out.println("Current screen contains " + pageSource.length() + " characters");
-            
-            // List visible TextViews
-            List<AndroidElement> textViews = driver.findElementsByClassName("android.widget.TextView");
-            System.out.println("Found " + textViews.size() + " TextViews:");
-            
-            for (int i = 0; i < Math.min(textViews.size(), 10); i++) {
-                try {
-                    AndroidElement element = textViews.get(i);
-                    String text = element.getText();
-                    String resourceId = element.getAttribute("resource-id");
-                    boolean displayed = element.isDisplayed();
-                    
-                    if (text != null && !text.trim().isEmpty()) {
-                        System.out.println("  TextView " + i + ": '" + text + "' [ID: " + resourceId + ", Visible: " + displayed + "]");
-                    }
-                } catch (Exception e) {
-                    // Skip problematic elements
-                }
-            }
-            
-            // List EditTexts
-            List<AndroidElement> editTexts = driver.findElementsByClassName("android.widget.EditText");
-            System.out.println("\nFound " + editTexts.size() + " EditTexts:");
-            
-            for (int i = 0; i < editTexts.size(); i++) {
-                try {
-                    AndroidElement element = editTexts.get(i);
-                    String hint = element.getAttribute("hint");
-                    String text = element.getAttribute("text");
-                    String resourceId = element.getAttribute("resource-id");
-                    
-                    System.out.println("  EditText " + i + ": hint='" + hint + "', text='" + text + "' [ID: " + resourceId + "]");
-                } catch (Exception e) {
-                    // Skip problematic elements
-                }
-            }
-            
-            // List Buttons
-            List<AndroidElement> buttons = driver.findElementsByClassName("android.widget.Button");
-            System.out.println("\nFound " + buttons.size() + " Buttons:");
-            
-            for (int i = 0; i < buttons.size(); i++) {
-                try {
-                    AndroidElement element = buttons.get(i);
-                    String text = element.getText();
-                    String resourceId = element.getAttribute("resource-id");
-                    boolean enabled = element.isEnabled();
-                    boolean displayed = element.isDisplayed();
-                    
-                    System.out.println("  Button " + i + ": '" + text + "' [ID: " + resourceId + ", Enabled: " + enabled + ", Visible: " + displayed + "]");
-                } catch (Exception e) {
-                    // Skip problematic elements
-                }
+            ScreenSnapshot.capture(driver()).printDebug();
+        } catch (Exception e) {
+            System.err.println("❌ Debug failed: " + e.getMessage());
+        }
+    }
+    
+    // Outermost failure handlers only, once per failure: screenshot and page source
+    // are kept as failure artifacts and the listing reuses that source
+    private static void captureFailure() {
+        try {
+            String source = FailureArtifacts.captureFailure(driver());
+            if (source != null) {
+                ScreenSnapshot.parse(source).printDebug();
             }
-            
-            System.out.println("=== END DEBUG ===\n");
-            
         } catch (Exception e) {
             System.err.println("❌ Debug failed: " + e.getMessage());
         }
     }
     
     private static void cleanupDriver() {
-        if (driver != null) {
+        if (driver() != null) {
             try {
                 System.out.println("🧹 Cleaning up driver...");
-                driver.quit();
-                System.out.println("✅ Driver closed successfully");
+                if (bottomNavs.get() != null) {
+                    bottomNavs.get().printStats();
+                }
+                SessionPool.shared().release(driver());
+                System.out.println("✅ Driver returned to session pool");
             } catch (Exception e) {
                 System.err.println("❌ Error closing driver: " + e.getMessage());
+            } finally {
+                drivers.remove();
+                waits.remove();
+                FailureArtifacts.unbind();
+                bottomNavs.remove();
             }
         }
     }
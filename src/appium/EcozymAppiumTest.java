@@ -1,12 +1,10 @@
 package appium;
 
 import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 import org.openqa.selenium.By;
@@ -19,87 +17,121 @@ import org.openqa.selenium.Point;
 
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidElement;
-import io.appium.java_client.remote.MobileCapabilityType;
-import io.appium.java_client.TouchAction;
-import io.appium.java_client.touch.offset.PointOption;
 
 public class EcozymAppiumTest {
-    private static AndroidDriver<AndroidElement> driver;
-    private static WebDriverWait wait;
+    // One driver per worker thread so several devices can run flows in parallel
+    private static final ThreadLocal<AndroidDriver<AndroidElement>> drivers = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> waits = new ThreadLocal<>();
     private static Scanner scanner = new Scanner(System.in);
     
-    // Test data constants
-    private static final String TEST_EMAIL = "test@ecozym.com";
-    private static final String TEST_PASSWORD = "password123";
-    private static final String COMPANY_NAME = "Test Company Ltd";
-    private static final String COMPANY_ADDRESS = "123 Test Street, Test City";
-    private static final String PHONE_NUMBER = "1234567890";
+    // Unattended runs (e.g. DeviceScheduler) cannot stop for manual upload prompts
+    private static volatile boolean unattended = Boolean.getBoolean("ecozym.unattended");
+    
+    private static final ThreadLocal<TestCase> testCases = new ThreadLocal<>();
+    
+    // Test data used when no data-driven row is bound (standalone main)
+    private static final TestCase DEFAULT_CASE = new TestCase("REG001", "Registration Test",
+        "registration", "Register a new company account", "Registration completes", true,
+        Map.of("email", "test@ecozym.com",
+            "password", "password123",
+            "company", "Test Company Ltd",
+            "address", "123 Test Street, Test City",
+            "phone", "1234567890"));
     
     public static void main(String[] args) {
+        TestResult result;
         try {
             setupDriver();
             runEcozymRegistrationTest();
             System.out.println("✅ Test completed successfully!");
+            result = TestResult.pass("REG001", "Registration Test", "Register a new company account",
+                "Registration completes", "Registration flow completed");
         } catch (Exception e) {
             System.err.println("❌ Test failed with error: " + e.getMessage());
             e.printStackTrace();
+            result = TestResult.fail("REG001", "Registration Test", "Register a new company account",
+                "Registration completes", "Registration flow aborted", e.getMessage());
         } finally {
             cleanupDriver();
             scanner.close();
         }
+        recordResult(result);
     }
     
-    private static void setupDriver() throws MalformedURLException, URISyntaxException {
-        System.out.println("🚀 Setting up Appium driver for Ecozym app...");
-        
-        DesiredCapabilities cap = new DesiredCapabilities();
+    private static void recordResult(TestResult result) {
+        try (ResultSink sink = ResultSink.open(ResultSink.newRunFile())) {
+            sink.append(result);
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write test result: " + e.getMessage());
+        }
+    }
+    
+    // Entry point used by DeviceScheduler: registration flow on one device, no console prompts
+    public static void runRegistrationOn(Device device) throws Exception {
+        runRegistrationOn(device, DEFAULT_CASE);
+    }
+    
+    // Data-driven variant: the row's email/password/company/address/phone replace the defaults
+    public static void runRegistrationOn(Device device, TestCase testCase) throws Exception {
+        unattended = true;
+        testCases.set(testCase);
+        try {
+            setupDriver(device);
+            runEcozymRegistrationTest();
+        } finally {
+            cleanupDriver();
+            testCases.remove();
+        }
+    }
+    
+    private static AndroidDriver<AndroidElement> driver() {
+        return drivers.get();
+    }
+    
+    private static WebDriverWait driverWait() {
+        return waits.get();
+    }
+    
+    private static String testData(String key) {
+        TestCase testCase = testCases.get();
+        return (testCase != null ? testCase : DEFAULT_CASE).value(key, DEFAULT_CASE.value(key, ""));
+    }
+    
+    private static void setupDriver() {
+        setupDriver(Device.defaultDevice());
+    }
+    
+    private static void setupDriver(Device device) {
+        System.out.println("🚀 Setting up Appium driver for Ecozym app on " + device + "...");
         
         // APK setup
         File appDir = new File("src/appium");
         File app = new File(appDir, "ecozym.apk");
         
-        if (!app.exists()) {
+        if (!app.exists() && !device.simulated()) {
             throw new RuntimeException("❌ APK file not found at: " + app.getAbsolutePath());
         }
         
         System.out.println("📱 APK path: " + app.getAbsolutePath());
         
-        // Core capabilities for Appium 2.0+
-        cap.setCapability(MobileCapabilityType.DEVICE_NAME, "Android Device");
-        cap.setCapability("appium:udid", "5cbacd90");
-        cap.setCapability(MobileCapabilityType.APP, app.getAbsolutePath());
-        cap.setCapability(MobileCapabilityType.AUTOMATION_NAME, "UiAutomator2");
-        cap.setCapability(MobileCapabilityType.PLATFORM_NAME, "Android");
-        
-        // Performance optimizations
-        cap.setCapability("appium:skipServerInstallation", true);
-        cap.setCapability("appium:skipDeviceInitialization", true);
-        cap.setCapability("appium:skipLogcatCapture", true);
-        cap.setCapability("appium:ignoreHiddenApiPolicyError", true);
-        cap.setCapability("appium:allowTestPackages", true);
+        // Shared start-up profile from capability-profiles.properties (-Dcapability.profile overrides)
+        CapabilityProfiles.Profile profile = CapabilityProfiles.shared().select("fast-start", device.udid());
+        System.out.println("🧩 Capability profile: " + profile.name());
+        DesiredCapabilities cap = profile.toCapabilities(app, "com.ecozym.wastemanagement");
         
-        // Real device settings
-        cap.setCapability("appium:systemPort", 8201);
-        cap.setCapability("appium:chromeDriverPort", 9516);
+        // Real device settings: udid and per-worker systemPort/chromeDriverPort
+        device.applyTo(cap);
         
-        // App management
-        cap.setCapability("appium:autoGrantPermissions", true);
-        cap.setCapability("appium:noReset", true);
-        cap.setCapability("appium:fullReset", false);
+        // Installed once per build ahead of the session instead of through the app capability
+        ApkInstaller.shared().applyTo(cap, device, app, "com.ecozym.wastemanagement");
         
-        // Timeout configurations
-        cap.setCapability("appium:newCommandTimeout", 300);
-        cap.setCapability("appium:androidInstallTimeout", 120000);
-        cap.setCapability("appium:adbExecTimeout", 40000);
-        cap.setCapability("appium:androidDeviceReadyTimeout", 60);
-        
-        // Additional optimizations
-        cap.setCapability("appium:skipUnlock", true);
-        cap.setCapability("appium:disableIdLocatorAutocompletion", true);
-        
-        URL serverUrl = new URI("http://127.0.0.1:4723").toURL();
-        driver = new AndroidDriver<>(serverUrl, cap);
-        wait = new WebDriverWait(driver,20);
+        // Refuses at once when this server or device was just found broken
+        AppReadiness.requireServer(device.serverUrl(), device.udid());
+        drivers.set(SessionPool.shared().acquire(device.serverUrl(), cap, profile.name()));
+        // Waits wake on the device's activity/window events instead of every 500 ms
+        ScreenEvents.watch(driver(), device);
+        waits.set(ScreenEvents.waitFor(driver(), 20));
+        FailureArtifacts.bind(driver());
         
         System.out.println("✅ Driver setup completed successfully!");
     }
@@ -107,27 +139,28 @@ public class EcozymAppiumTest {
     private static void runEcozymRegistrationTest() throws InterruptedException {
         System.out.println("📋 Starting Ecozym registration test...");
         
-        // Wait for app to fully load
-        Thread.sleep(5000);
+        // Fail fast unless the app is up on the sign-in screen, then let it settle
+        AppReadiness.requireApp(driver(), "com.ecozym.wastemanagement", By.id("com.ecozym.wastemanagement:id/btn_createAccount"));
+        UiWait.settle(driver(), "App launch", 5000);
         
         try {
             // Step 1: Navigate to registration
-            clickCreateAccountButton();
+            StepMetrics.time("clickCreateAccountButton", EcozymAppiumTest::clickCreateAccountButton);
             
             // Step 2: Fill basic registration info
-            fillRegistrationStep1();
+            StepMetrics.time("fillRegistrationStep1", EcozymAppiumTest::fillRegistrationStep1);
             
             // Step 3: Fill company information
-            fillRegistrationStep2();
+            StepMetrics.time("fillRegistrationStep2", EcozymAppiumTest::fillRegistrationStep2);
             
             // Step 4: Handle manual document upload
-            handleManualDocumentUpload();
+            StepMetrics.time("handleManualDocumentUpload", EcozymAppiumTest::handleManualDocumentUpload);
             
             System.out.println("🎉 Registration test flow completed!");
             
         } catch (Exception e) {
             System.err.println("❌ Test execution failed: " + e.getMessage());
-            debugCurrentScreen(); // Debug info on failure
+            captureFailure(); // Debug info on failure
             throw e;
         }
     }
@@ -136,32 +169,24 @@ public class EcozymAppiumTest {
         System.out.println("🔍 Looking for Create Account button...");
         
         try {
-            WebElement createAccountBtn = wait.until(
-                ExpectedConditions.elementToBeClickable(
-                    By.id("com.ecozym.wastemanagement:id/btn_createAccount")
-                )
-            );
-            
-            System.out.println("✅ Found Create Account button, clicking...");
-            createAccountBtn.click();
-            Thread.sleep(2000);
+            String strategy = LocatorChain.of(driver(), "EcozymAppiumTest.createAccountButton", 20)
+                .then("resource-id", probe -> probe.until(
+                    ExpectedConditions.elementToBeClickable(
+                        By.id("com.ecozym.wastemanagement:id/btn_createAccount")
+                    )
+                ).click())
+                .then("uiautomator", probe -> driver().findElementByAndroidUIAutomator(
+                    "new UiSelector().resourceId(\"com.ecozym.wastemanagement:id/btn_createAccount\")"
+                ).click())
+                .run();
             
-        } catch (Exception e) {
-            System.out.println("⚠️ Primary strategy failed, trying UIAutomator...");
+            System.out.println("✅ Clicked Create Account button using " + strategy);
+            UiWait.settle(driver(), "Create Account", 2000);
             
-            try {
-                WebElement createAccountBtn = driver.findElementByAndroidUIAutomator(
-                    "new UiSelector().resourceId(\"com.ecozym.wastemanagement:id/btn_createAccount\")"
-                );
-                createAccountBtn.click();
-                Thread.sleep(2000);
-                System.out.println("✅ Successfully clicked Create Account using UIAutomator");
-                
-            } catch (Exception e2) {
-                System.err.println("❌ All strategies failed to find Create Account button");
-                debugCurrentScreen();
-                throw new RuntimeException("Cannot locate Create Account button", e2);
-            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ All strategies failed to find Create Account button");
+            debugCurrentScreen();
+            throw new RuntimeException("Cannot locate Create Account button", e);
         }
     }
     
@@ -170,20 +195,20 @@ public class EcozymAppiumTest {
         
         try {
             // Fill email field - using multiple strategies
-            fillEmailField();
-            Thread.sleep(1000);
+            StepMetrics.time("fillEmailField", EcozymAppiumTest::fillEmailField);
+            UiWait.settle(driver(), "Email input", 1000);
             
             // Fill password field
-            fillPasswordField();
-            Thread.sleep(1000);
+            StepMetrics.time("fillPasswordField", EcozymAppiumTest::fillPasswordField);
+            UiWait.settle(driver(), "Password input", 1000);
             
             // Fill confirm password field
-            fillConfirmPasswordField();
-            Thread.sleep(1000);
+            StepMetrics.time("fillConfirmPasswordField", EcozymAppiumTest::fillConfirmPasswordField);
+            UiWait.settle(driver(), "Confirm password input", 1000);
             
             // Click Next button
-            clickNextButton("Step 1");
-            Thread.sleep(3000);
+            StepMetrics.time("clickNextButton Step 1", () -> clickNextButton("Step 1"));
+            UiWait.settle(driver(), "Registration step 1", 3000);
             
         } catch (Exception e) {
             System.err.println("❌ Error in registration step 1: " + e.getMessage());
@@ -194,23 +219,25 @@ public class EcozymAppiumTest {
     
     private static void fillEmailField() {
         try {
-            // Strategy 1: Find first EditText (usually email)
-            List<AndroidElement> editTexts = driver.findElementsByClassName("android.widget.EditText");
-            if (!editTexts.isEmpty()) {
-                AndroidElement emailField = editTexts.get(0);
-                emailField.clear();
-                emailField.sendKeys(TEST_EMAIL);
-                System.out.println("✅ Email entered successfully");
-                return;
-            }
-            
-            // Strategy 2: Try by hint text
-            WebElement emailField = driver.findElementByAndroidUIAutomator(
-                "new UiSelector().className(\"android.widget.EditText\").textContains(\"email\")"
-            );
-            emailField.clear();
-            emailField.sendKeys(TEST_EMAIL);
-            System.out.println("✅ Email entered using hint strategy");
+            String strategy = LocatorChain.of(driver(), "EcozymAppiumTest.emailField", 20)
+                // Strategy 1: Find first EditText (usually email)
+                .then("first-edittext", probe -> {
+                    AndroidElement emailField = (AndroidElement) probe.until(
+                        ExpectedConditions.presenceOfElementLocated(By.className("android.widget.EditText"))
+                    );
+                    emailField.clear();
+                    emailField.sendKeys(testData("email"));
+                })
+                // Strategy 2: Try by hint text
+                .then("uiautomator-hint", probe -> {
+                    WebElement emailField = driver().findElementByAndroidUIAutomator(
+                        "new UiSelector().className(\"android.widget.EditText\").textContains(\"email\")"
+                    );
+                    emailField.clear();
+                    emailField.sendKeys(testData("email"));
+                })
+                .run();
+            System.out.println("✅ Email entered using " + strategy);
             
         } catch (Exception e) {
             System.err.println("❌ Failed to fill email field: " + e.getMessage());
@@ -220,13 +247,13 @@ public class EcozymAppiumTest {
     
     private static void fillPasswordField() {
         try {
-            WebElement passwordField = wait.until(
+            WebElement passwordField = driverWait().until(
                 ExpectedConditions.presenceOfElementLocated(
                     By.id("com.ecozym.wastemanagement:id/etPassword")
                 )
             );
             passwordField.clear();
-            passwordField.sendKeys(TEST_PASSWORD);
+            passwordField.sendKeys(testData("password"));
             System.out.println("✅ Password entered successfully");
             
         } catch (Exception e) {
@@ -237,13 +264,13 @@ public class EcozymAppiumTest {
     
     private static void fillConfirmPasswordField() {
         try {
-            WebElement confirmPasswordField = wait.until(
+            WebElement confirmPasswordField = driverWait().until(
                 ExpectedConditions.presenceOfElementLocated(
                     By.id("com.ecozym.wastemanagement:id/etConfirmPassword")
                 )
             );
             confirmPasswordField.clear();
-            confirmPasswordField.sendKeys(TEST_PASSWORD);
+            confirmPasswordField.sendKeys(testData("password"));
             System.out.println("✅ Confirm password entered successfully");
             
         } catch (Exception e) {
@@ -257,24 +284,24 @@ public class EcozymAppiumTest {
         
         try {
             // Fill company name
-            fillCompanyName();
-            Thread.sleep(1000);
+            StepMetrics.time("fillCompanyName", EcozymAppiumTest::fillCompanyName);
+            UiWait.settle(driver(), "Company name input", 1000);
             
             // Handle industry type selection
-            selectIndustryType();
-            Thread.sleep(1000);
+            StepMetrics.time("selectIndustryType", EcozymAppiumTest::selectIndustryType);
+            UiWait.settle(driver(), "Industry type", 1000);
             
             // Fill company address using coordinates
-            fillCompanyAddress();
-            Thread.sleep(1000);
+            StepMetrics.time("fillCompanyAddress", EcozymAppiumTest::fillCompanyAddress);
+            UiWait.settle(driver(), "Company address", 1000);
             
             // Fill phone number using coordinates
-            fillPhoneNumber();
-            Thread.sleep(1000);
+            StepMetrics.time("fillPhoneNumber", EcozymAppiumTest::fillPhoneNumber);
+            UiWait.settle(driver(), "Phone number", 1000);
             
             // Click Next button for step 2
-            clickNextButton("Step 2");
-            Thread.sleep(3000);
+            StepMetrics.time("clickNextButton Step 2", () -> clickNextButton("Step 2"));
+            UiWait.settle(driver(), "Registration step 2", 3000);
             
         } catch (Exception e) {
             System.err.println("❌ Error in registration step 2: " + e.getMessage());
@@ -285,13 +312,13 @@ public class EcozymAppiumTest {
     
     private static void fillCompanyName() {
         try {
-            WebElement companyNameField = wait.until(
+            WebElement companyNameField = driverWait().until(
                 ExpectedConditions.presenceOfElementLocated(
                     By.id("com.ecozym.wastemanagement:id/etCompanyName")
                 )
             );
             companyNameField.clear();
-            companyNameField.sendKeys(COMPANY_NAME);
+            companyNameField.sendKeys(testData("company"));
             System.out.println("✅ Company name entered successfully");
             
         } catch (Exception e) {
@@ -302,16 +329,14 @@ public class EcozymAppiumTest {
     
     private static void selectIndustryType() {
         try {
-            // Click on industry dropdown using coordinates (based on your highlight box)
-            int x = 19 + 250/2; // Center of the highlighted area
-            int y = 296 + 36/2;
-            
-            TouchAction touchAction = new TouchAction(driver);
-            touchAction.tap(PointOption.point(x, y)).perform();
-            Thread.sleep(1500);
+            // Click on industry dropdown at the center of its bounds on this device
+            ScreenGeometry.tap(driver(), "registration.step2", "industryDropdown",
+                ScreenGeometry.mentioning("android.widget.Spinner", "industry", "spinner"),
+                19 + 250/2, 296 + 36/2);
+            UiWait.settle(driver(), "Industry dropdown", 1500);
             
             // Select "Food Processing" option
-            WebElement foodProcessingOption = wait.until(
+            WebElement foodProcessingOption = driverWait().until(
                 ExpectedConditions.elementToBeClickable(
                     By.xpath("//android.widget.CheckedTextView[@text='Food Processing']")
                 )
@@ -321,15 +346,16 @@ public class EcozymAppiumTest {
             
         } catch (Exception e) {
             System.out.println("⚠️ Industry selection failed, trying alternative approach: " + e.getMessage());
+            ScreenGeometry.invalidate(driver(), "registration.step2");
             
             try {
                 // Alternative: Find any spinner and select first option
-                List<AndroidElement> spinners = driver.findElementsByClassName("android.widget.Spinner");
+                List<AndroidElement> spinners = driver().findElementsByClassName("android.widget.Spinner");
                 if (!spinners.isEmpty()) {
                     spinners.get(0).click();
-                    Thread.sleep(1000);
+                    UiWait.settle(driver(), "Industry spinner", 1000);
                     
-                    List<AndroidElement> options = driver.findElementsByClassName("android.widget.CheckedTextView");
+                    List<AndroidElement> options = driver().findElementsByClassName("android.widget.CheckedTextView");
                     if (!options.isEmpty()) {
                         options.get(0).click();
                         System.out.println("✅ First industry option selected");
@@ -343,24 +369,23 @@ public class EcozymAppiumTest {
     
     private static void fillCompanyAddress() {
         try {
-            // Using coordinates from your highlight box for address field
-            int x = 19 + 73/2; // Center of address field
-            int y = 441 + 38/2;
-            
-            TouchAction touchAction = new TouchAction(driver);
-            touchAction.tap(PointOption.point(x, y)).perform();
-            Thread.sleep(500);
+            // Tap the address field at the center of its bounds on this device
+            ScreenGeometry.tap(driver(), "registration.step2", "addressField",
+                ScreenGeometry.mentioning("android.widget.EditText", "address"),
+                19 + 73/2, 441 + 38/2);
+            UiWait.settle(driver(), "Address field focus", 500);
             
             // Send keys to the focused field
-            driver.getKeyboard().sendKeys(COMPANY_ADDRESS);
+            driver().getKeyboard().sendKeys(testData("address"));
             System.out.println("✅ Company address entered using coordinates");
             
         } catch (Exception e) {
             System.out.println("⚠️ Address coordinate method failed, trying EditText search: " + e.getMessage());
+            ScreenGeometry.invalidate(driver(), "registration.step2");
             
             try {
                 // Fallback: Find by hint or placeholder text
-                List<AndroidElement> editTexts = driver.findElementsByClassName("android.widget.EditText");
+                List<AndroidElement> editTexts = driver().findElementsByClassName("android.widget.EditText");
                 for (AndroidElement editText : editTexts) {
                     String hint = editText.getAttribute("hint");
                     String contentDesc = editText.getAttribute("content-desc");
@@ -368,7 +393,7 @@ public class EcozymAppiumTest {
                     if ((hint != null && hint.toLowerCase().contains("address")) ||
                         (contentDesc != null && contentDesc.toLowerCase().contains("address"))) {
                         editText.clear();
-                        editText.sendKeys(COMPANY_ADDRESS);
+                        editText.sendKeys(testData("address"));
                         System.out.println("✅ Address entered using hint matching");
                         return;
                     }
@@ -384,33 +409,32 @@ public class EcozymAppiumTest {
     private static void fillPhoneNumber() {
         try {
             // Primary strategy: Use the correct resource ID we found in debug
-            WebElement phoneField = wait.until(
+            WebElement phoneField = driverWait().until(
                 ExpectedConditions.presenceOfElementLocated(
                     By.id("com.ecozym.wastemanagement:id/etPhoneNumber")
                 )
             );
             phoneField.clear();
-            phoneField.sendKeys(PHONE_NUMBER);
+            phoneField.sendKeys(testData("phone"));
             System.out.println("✅ Phone number entered successfully using resource ID");
             
         } catch (Exception e) {
             System.out.println("⚠️ Phone ID method failed, trying coordinates: " + e.getMessage());
             
             try {
-                // Fallback: Using coordinates from your highlight box for phone field
-                int x = 98 + 171/2; // Center of phone field
-                int y = 441 + 38/2;
-                
-                TouchAction touchAction = new TouchAction(driver);
-                touchAction.tap(PointOption.point(x, y)).perform();
-                Thread.sleep(500);
+                // Fallback: tap the phone field at the center of its bounds on this device
+                ScreenGeometry.tap(driver(), "registration.step2", "phoneField",
+                    ScreenGeometry.mentioning("android.widget.EditText", "phone"),
+                    98 + 171/2, 441 + 38/2);
+                UiWait.settle(driver(), "Phone field focus", 500);
                 
                 // Send keys to the focused field
-                driver.getKeyboard().sendKeys(PHONE_NUMBER);
+                driver().getKeyboard().sendKeys(testData("phone"));
                 System.out.println("✅ Phone number entered using coordinates");
                 
             } catch (Exception e2) {
                 System.out.println("⚠️ All phone field strategies failed: " + e2.getMessage());
+                ScreenGeometry.invalidate(driver(), "registration.step2");
                 throw new RuntimeException("Cannot fill phone field", e2);
             }
         }
@@ -418,7 +442,7 @@ public class EcozymAppiumTest {
     
     private static void clickNextButton(String stepName) {
         try {
-            WebElement nextButton = wait.until(
+            WebElement nextButton = driverWait().until(
                 ExpectedConditions.elementToBeClickable(
                     By.id("com.ecozym.wastemanagement:id/btnNext")
                 )
@@ -440,6 +464,12 @@ public class EcozymAppiumTest {
             System.out.println("🔍 Current screen elements before manual upload:");
             debugCurrentScreen();
             
+            if (unattended) {
+                System.out.println("⚠️ Unattended run, skipping manual document upload");
+                clickFinalNextButton();
+                return;
+            }
+            
             // Show instructions to user
             System.out.println("\n" + "=".repeat(60));
             System.out.println("📋 MANUAL UPLOAD REQUIRED");
@@ -456,7 +486,7 @@ public class EcozymAppiumTest {
             scanner.nextLine();
             
             System.out.println("✅ Manual upload completed, continuing with automated test...");
-            Thread.sleep(2000);
+            UiWait.settle(driver(), "Manual upload", 2000);
             
             // Debug screen after manual upload
             System.out.println("🔍 Screen elements after manual upload:");
@@ -477,79 +507,52 @@ public class EcozymAppiumTest {
         try {
             System.out.println("🔍 Looking for Next/Continue button to proceed...");
             
-            // Strategy 1: Try the standard Next button ID
-            try {
-                WebElement finalNextButton = wait.until(
-                    ExpectedConditions.elementToBeClickable(
-                        By.id("com.ecozym.wastemanagement:id/btnNext")
-                    )
-                );
-                finalNextButton.click();
-                System.out.println("🎉 Clicked Next button using resource ID - Registration completed!");
-                Thread.sleep(3000);
-                return;
-            } catch (Exception e) {
-                System.out.println("⚠️ Standard Next button ID not found: " + e.getMessage());
-            }
-            
-            // Strategy 2: Look for any button with "Next", "Continue", "Finish", "Submit" text
-            String[] buttonTexts = {"Next", "Continue", "Finish", "Submit", "Complete", "Done", "Proceed"};
-            
-            for (String buttonText : buttonTexts) {
-                try {
-                    WebElement button = driver.findElementByAndroidUIAutomator(
-                        "new UiSelector().textContains(\"" + buttonText + "\").clickable(true)"
-                    );
-                    button.click();
-                    System.out.println("✅ Clicked button with text: " + buttonText);
-                    Thread.sleep(3000);
-                    return;
-                } catch (Exception e) {
-                    // Continue to next button text
-                }
-            }
-            
-            // Strategy 3: Look for any Button element that's clickable
             try {
-                List<AndroidElement> buttons = driver.findElementsByClassName("android.widget.Button");
-                for (AndroidElement button : buttons) {
-                    if (button.isEnabled() && button.isDisplayed()) {
-                        String buttonText = button.getText();
-                        System.out.println("🔍 Found button: " + buttonText);
-                        
-                        // Skip buttons that might be navigation/back buttons
-                        if (buttonText != null && 
-                            !buttonText.toLowerCase().contains("back") && 
-                            !buttonText.toLowerCase().contains("cancel")) {
-                            button.click();
-                            System.out.println("✅ Clicked button: " + buttonText);
-                            Thread.sleep(3000);
-                            return;
+                String strategy = LocatorChain.of(driver(), "EcozymAppiumTest.finalNextButton", 20)
+                    // Strategy 1: Try the standard Next button ID
+                    .then("resource-id", probe -> probe.until(
+                        ExpectedConditions.elementToBeClickable(
+                            By.id("com.ecozym.wastemanagement:id/btnNext")
+                        )
+                    ).click())
+                    // Strategy 2: Look for any button with "Next", "Continue", "Finish", "Submit" text
+                    .then("uiautomator-textContains", probe -> clickFirstUiSelector(
+                        "new UiSelector().textContains(\"%s\").clickable(true)",
+                        "Next", "Continue", "Finish", "Submit", "Complete", "Done", "Proceed"))
+                    // Strategy 3: Look for any Button element that's clickable
+                    .then("button-scan", probe -> {
+                        List<AndroidElement> buttons = driver().findElementsByClassName("android.widget.Button");
+                        for (AndroidElement button : buttons) {
+                            if (button.isEnabled() && button.isDisplayed()) {
+                                String buttonText = button.getText();
+                                System.out.println("🔍 Found button: " + buttonText);
+                                
+                                // Skip buttons that might be navigation/back buttons
+                                if (buttonText != null && 
+                                    !buttonText.toLowerCase().contains("back") && 
+                                    !buttonText.toLowerCase().contains("cancel")) {
+                                    button.click();
+                                    return;
+                                }
+                            }
                         }
-                    }
-                }
-            } catch (Exception e) {
-                System.out.println("⚠️ Button class search failed: " + e.getMessage());
+                        throw new RuntimeException("No enabled forward button on screen");
+                    })
+                    // Strategy 4: Look for TextView that might be styled as button
+                    .then("uiautomator-text", probe -> clickFirstUiSelector(
+                        "new UiSelector().text(\"%s\").clickable(true)",
+                        "NEXT", "CONTINUE", "SUBMIT", "FINISH"))
+                    .run();
+                
+                System.out.println("🎉 Clicked Next button using " + strategy + " - Registration completed!");
+                UiWait.settle(driver(), "Final Next", 3000);
+                return;
+            } catch (RuntimeException e) {
+                System.out.println("⚠️ Automatic Next button detection failed: " + e.getMessage());
             }
             
-            // Strategy 4: Look for TextView that might be styled as button
-            try {
-                String[] possibleButtonTexts = {"NEXT", "CONTINUE", "SUBMIT", "FINISH"};
-                for (String text : possibleButtonTexts) {
-                    try {
-                        WebElement textButton = driver.findElementByAndroidUIAutomator(
-                            "new UiSelector().text(\"" + text + "\").clickable(true)"
-                        );
-                        textButton.click();
-                        System.out.println("✅ Clicked text button: " + text);
-                        Thread.sleep(3000);
-                        return;
-                    } catch (Exception e) {
-                        // Continue
-                    }
-                }
-            } catch (Exception e) {
-                System.out.println("⚠️ TextView button search failed: " + e.getMessage());
+            if (unattended) {
+                throw new RuntimeException("Next/Continue button not found and no operator available");
             }
             
             // Strategy 5: Manual intervention if automatic button detection fails
@@ -565,10 +568,13 @@ public class EcozymAppiumTest {
             scanner.nextLine();
             
             System.out.println("🎉 Manual button click completed - Registration process finished!");
-            Thread.sleep(2000);
+            UiWait.settle(driver(), "Manual Next", 2000);
             
         } catch (Exception e) {
             System.err.println("❌ All next button strategies failed: " + e.getMessage());
+            if (unattended) {
+                throw new RuntimeException("Cannot complete registration unattended", e);
+            }
             
             // Final fallback - manual intervention
             System.out.println("\n" + "=".repeat(60));
@@ -585,111 +591,65 @@ public class EcozymAppiumTest {
         }
     }
     
+    // Clicks the first element matching the UiSelector template for any of the given texts
+    private static void clickFirstUiSelector(String selectorTemplate, String... texts) {
+        for (String text : texts) {
+            try {
+                driver().findElementByAndroidUIAutomator(String.format(selectorTemplate, text)).click();
+                System.out.println("✅ Clicked button with text: " + text);
+                return;
+            } catch (Exception e) {
+                // Continue to next button text
+            }
+        }
+        throw new RuntimeException("No clickable element with any of the expected texts");
+    }
+    
+    // Listing of the current screen, for logs only
     private static void debugCurrentScreen() {
         try {
-            System.out.println("\n=== 🔍 DEBUG: Current Screen Elements ===");
-            
-            // Get page source for detailed debugging
-            String pageSource = driver.getPageSource();
-            System.out.println("Current screen contains " + pageSource.length() + " characters");
-            
-            // List visible TextViews
-            List<AndroidElement> textViews = driver.findElementsByClassName("android.widget.TextView");
-            System.out.println("Found " + textViews.size() + " TextViews:");
-            
-            for (int i = 0; i < Math.min(textViews.size(), 10); i++) {
-                try {
-                    AndroidElement element = textViews.get(i);
-                    String text = element.getText();
-                    String resourceId = element.getAttribute("resource-id");
-                    boolean displayed = element.isDisplayed();
-                    
-                    if (text != null && !text.trim().isEmpty()) {
-                        System.out.println("  TextView " + i + ": '" + text + "' [ID: " + resourceId + ", Visible: " + displayed + "]");
-                    }
-                } catch (Exception e) {
-                    // Skip problematic elements
-                }
-            }
-            
-            // List EditTexts
-            List<AndroidElement> editTexts = driver.findElementsByClassName("android.widget.EditText");
-            System.out.println("\nFound " + editTexts.size() + " EditTexts:");
-            
-            for (int i = 0; i < editTexts.size(); i++) {
-                try {
-                    AndroidElement element = editTexts.get(i);
-                    String hint = element.getAttribute("hint");
-                    String text = element.getAttribute("text");
-                    String resourceId = element.getAttribute("resource-id");
-                    
-                    System.out.println("  EditText " + i + ": hint='" + hint + "', text='" + text + "' [ID: " + resourceId + "]");
-                } catch (Exception e) {
-                    // Skip problematic elements
-                }
-            }
-            
-            // List Buttons
-            List<AndroidElement> buttons = driver.findElementsByClassName("android.widget.Button");
-            System.out.println("\nFound " + buttons.size() + " Buttons:");
-            
-            for (int i = 0; i < buttons.size(); i++) {
-                try {
-                    AndroidElement element = buttons.get(i);
-                    String text = element.getText();
-                    String resourceId = element.getAttribute("resource-id");
-                    boolean enabled = element.isEnabled();
-                    boolean displayed = element.isDisplayed();
-                    
-                    System.out.println("  Button " + i + ": '" + text + "' [ID: " + resourceId + ", Enabled: " + enabled + ", Visible: " + displayed + "]");
-                } catch (Exception e) {
-                    // Skip problematic elements
-                }
+            ScreenSnapshot.capture(driver()).printDebug();
+        } catch (Exception e) {
+            System.err.println("❌ Debug failed: " + e.getMessage());
+        }
+    }
+    
+    // Outermost failure handlers only, once per failure: screenshot and page source
+    // are kept as failure artifacts and the listing reuses that source
+    private static void captureFailure() {
+        try {
+            String source = FailureArtifacts.captureFailure(driver());
+            if (source != null) {
+                ScreenSnapshot.parse(source).printDebug();
             }
-            
-            System.out.println("=== END DEBUG ===\n");
-            
         } catch (Exception e) {
             System.err.println("❌ Debug failed: " + e.getMessage());
         }
     }
     
     private static void cleanupDriver() {
-        if (driver != null) {
+        if (driver() != null) {
             try {
                 System.out.println("🧹 Cleaning up driver...");
-                driver.quit();
-                System.out.println("✅ Driver closed successfully");
+                SessionPool.shared().release(driver());
+                System.out.println("✅ Driver returned to session pool");
             } catch (Exception e) {
                 System.err.println("❌ Error closing driver: " + e.getMessage());
+            } finally {
+                drivers.remove();
+                waits.remove();
+                FailureArtifacts.unbind();
             }
         }
     }
     
     // Utility method for safe element interaction
     private static boolean safeClick(By locator, String elementName) {
-        try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
-            element.click();
-            System.out.println("✅ Successfully clicked " + elementName);
-            return true;
-        } catch (Exception e) {
-            System.out.println("⚠️ Failed to click " + elementName + ": " + e.getMessage());
-            return false;
-        }
+        return SafeActions.safeClick(driverWait(), locator, elementName);
     }
     
     // Utility method for safe text input
     private static boolean safeInput(By locator, String value, String fieldName) {
-        try {
-            WebElement element = wait.until(ExpectedConditions.presenceOfElementLocated(locator));
-            element.clear();
-            element.sendKeys(value);
-            System.out.println("✅ Successfully entered " + fieldName);
-            return true;
-        } catch (Exception e) {
-            System.out.println("⚠️ Failed to enter " + fieldName + ": " + e.getMessage());
-            return false;
-        }
+        return SafeActions.safeInput(driverWait(), locator, value, fieldName);
     }
 }
\ No newline at end of file
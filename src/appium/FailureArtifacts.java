@@ -0,0 +1,401 @@
+package appium;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+import javax.imageio.ImageIO;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+// Visual evidence for failed (and optionally every) test step. The test thread
+// only pulls the screenshot and page source off the device; decoding,
+// downscaling, PNG re-encoding, gzip and every disk write happen on a small
+// background pool. Screenshots that look the same as one already kept (dHash
+// within -Dartifacts.dedupDistance bits) and byte-identical page sources are
+// not written again. Files land in reports/artifacts/<run id>/ and the rows
+// of <run>.artifacts.csv tie them to the result row they belong to.
+//
+//   -Dartifacts.steps=true       also capture after every StepMetrics step
+//   -Dartifacts.maxWidth=720     screenshots wider than this are scaled down (0 = keep)
+//   -Dartifacts.dedupDistance=2  max differing dHash bits for "same frame"
+//   -Dartifacts.maxPending=64    step captures are dropped while this many are queued
+//   -Dartifacts.dedupWindow=256  how many recent frames and sources a new one is compared with
+public class FailureArtifacts {
+    public enum Kind { SCREENSHOT, PAGE_SOURCE }
+
+    // duplicateOf is the earlier file with the same content, file is null then
+    public record Artifact(String label, Kind kind, Path file, Path duplicateOf, long rawBytes, long storedBytes) {
+    }
+
+    public static final String HEADER = "Test Case ID,Timestamp,Kind,Label,File,Duplicate Of,Bytes";
+
+    private static final Path DIR = Paths.get(System.getProperty("artifacts.dir", "reports/artifacts"))
+        .resolve(ResultStore.runId()).toAbsolutePath();
+    private static final boolean STEPS = Boolean.getBoolean("artifacts.steps");
+    private static final int MAX_WIDTH = Integer.getInteger("artifacts.maxWidth", 720);
+    private static final int DEDUP_DISTANCE = Integer.getInteger("artifacts.dedupDistance", 2);
+    private static final int MAX_PENDING = Integer.getInteger("artifacts.maxPending", 64);
+    private static final int DEDUP_WINDOW = Math.max(1, Integer.getInteger("artifacts.dedupWindow", 256));
+
+    private static final ExecutorService encoders = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            Thread thread = new Thread(runnable, "failure-artifacts");
+            thread.setDaemon(true);
+            return thread;
+        });
+    private static final AtomicInteger queued = new AtomicInteger();
+
+    // Artifacts captured on this thread that no result row has claimed yet
+    private static final ThreadLocal<List<CompletableFuture<Artifact>>> unclaimed = ThreadLocal.withInitial(ArrayList::new);
+    // Driver of the session running on this thread, for step-boundary captures
+    private static final ThreadLocal<WebDriver> boundDrivers = new ThreadLocal<>();
+    // Innermost StepMetrics step that threw on this thread, names the next failure capture
+    private static final ThreadLocal<String> failedSteps = new ThreadLocal<>();
+
+    // The last DEDUP_WINDOW frames and sources on disk: a ring of dHashes and files,
+    // and SHA-256 -> file in insertion order. Repeats of a screen come close together,
+    // so a bounded window keeps memory and the scan under the lock flat on long runs.
+    private static final long[] frameHashes = new long[DEDUP_WINDOW];
+    private static final Path[] frameFiles = new Path[DEDUP_WINDOW];
+    private static int frameCount = 0;
+    private static final Map<String, Path> sources = new LinkedHashMap<>();
+    private static final ReentrantLock sidecarLock = new ReentrantLock();
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+    private static final AtomicInteger written = new AtomicInteger();
+    private static final AtomicInteger duplicates = new AtomicInteger();
+    private static final AtomicInteger dropped = new AtomicInteger();
+    private static final AtomicLong rawTotal = new AtomicLong();
+    private static final AtomicLong storedTotal = new AtomicLong();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FailureArtifacts::drain, "failure-artifacts-drain"));
+    }
+
+    public static void bind(WebDriver driver) {
+        boundDrivers.set(driver);
+    }
+
+    public static void unbind() {
+        boundDrivers.remove();
+        failedSteps.remove();
+    }
+
+    // Called once per failure, from a runner's outermost failure handler: queues the
+    // screenshot and page source, labelled with the step (or else the method) that
+    // failed, and returns the source (null if unavailable)
+    public static String captureFailure(WebDriver driver) {
+        String label = failedSteps.get();
+        failedSteps.remove();
+        if (label == null) {
+            label = StackWalker.getInstance()
+                .walk(frames -> frames.skip(2).findFirst().map(StackWalker.StackFrame::getMethodName).orElse("failure"));
+        }
+        return capture(driver, "fail-" + label, true);
+    }
+
+    // Called by StepMetrics when a step throws; the first call after a capture wins,
+    // which is the innermost step since nested steps unwind from the inside out
+    public static void stepFailed(String step) {
+        if (failedSteps.get() == null) {
+            failedSteps.set(step);
+        }
+    }
+
+    // Called by StepMetrics after a step completes; a no-op unless -Dartifacts.steps=true
+    public static void stepCompleted(String step) {
+        // A failure the step recovered from is not the one a later capture is about
+        failedSteps.remove();
+        WebDriver driver = boundDrivers.get();
+        if (STEPS && driver != null) {
+            capture(driver, "step-" + step, false);
+        }
+    }
+
+    private static String capture(WebDriver driver, String label, boolean required) {
+        // Failure evidence is never dropped, the queue may run over its limit for it
+        if (!required && queued.get() >= MAX_PENDING) {
+            dropped.incrementAndGet();
+            return null;
+        }
+        String name = String.format("%04d-%s", sequence.incrementAndGet(), label.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+        byte[] png = null;
+        if (driver instanceof TakesScreenshot camera) {
+            try {
+                png = camera.getScreenshotAs(OutputType.BYTES);
+            } catch (Exception e) {
+                System.err.println("❌ Screenshot failed: " + e.getMessage());
+            }
+        }
+        String source = null;
+        try {
+            source = driver.getPageSource();
+        } catch (Exception e) {
+            System.err.println("❌ Page source failed: " + e.getMessage());
+        }
+
+        List<CompletableFuture<Artifact>> queue = unclaimed.get();
+        if (png != null) {
+            byte[] frame = png;
+            queue.add(submit(() -> storeScreenshot(label, name, frame)));
+        }
+        if (source != null) {
+            byte[] xml = source.getBytes(StandardCharsets.UTF_8);
+            queue.add(submit(() -> storeSource(label, name, xml)));
+        }
+        return source;
+    }
+
+    private interface Job {
+        Artifact run() throws IOException;
+    }
+
+    private static CompletableFuture<Artifact> submit(Job job) {
+        CompletableFuture<Artifact> future = new CompletableFuture<>();
+        queued.incrementAndGet();
+        encoders.execute(() -> {
+            try {
+                future.complete(job.run());
+            } catch (Exception e) {
+                System.err.println("❌ Cannot store failure artifact: " + e.getMessage());
+                future.complete(null);
+            } finally {
+                queued.decrementAndGet();
+            }
+        });
+        return future;
+    }
+
+    // Called by ResultSink with the row just written: the artifacts captured on this
+    // thread since the previous row are listed in <run>.artifacts.csv once stored
+    public static void attach(Path runFile, TestResult result) {
+        List<CompletableFuture<Artifact>> claimed = unclaimed.get();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        unclaimed.remove();
+        String name = runFile.getFileName().toString().replaceFirst("\\.csv$", "");
+        Path sidecar = runFile.resolveSibling(name + ".artifacts.csv");
+        // Queued behind the captures it lists, so it never holds up an encode
+        try {
+            encoders.execute(() -> writeRows(sidecar, result, claimed));
+        } catch (RejectedExecutionException e) {
+            writeRows(sidecar, result, claimed);
+        }
+    }
+
+    private static void writeRows(Path sidecar, TestResult result, List<CompletableFuture<Artifact>> artifacts) {
+        StringBuilder rows = new StringBuilder();
+        for (CompletableFuture<Artifact> future : artifacts) {
+            Artifact artifact = future.join();
+            if (artifact == null) {
+                continue;
+            }
+            rows.append(String.join(",",
+                quote(result.testCaseId()),
+                quote(result.timestamp()),
+                quote(artifact.kind().toString()),
+                quote(artifact.label()),
+                quote(relative(sidecar, artifact.file())),
+                quote(relative(sidecar, artifact.duplicateOf())),
+                String.valueOf(artifact.storedBytes()))).append('\n');
+        }
+        sidecarLock.lock();
+        try {
+            if (!Files.exists(sidecar)) {
+                rows.insert(0, HEADER + "\n");
+            }
+            Files.writeString(sidecar, rows, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write artifact index " + sidecar + ": " + e.getMessage());
+        } finally {
+            sidecarLock.unlock();
+        }
+    }
+
+    private static Artifact storeScreenshot(String label, String name, byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("screenshot is not a readable image");
+        }
+        image = scaled(image);
+        long hash = dHash(image);
+        Path file = DIR.resolve(name + ".png");
+
+        Path earlier;
+        synchronized (frameHashes) {
+            earlier = nearestFrame(hash);
+            if (earlier == null) {
+                // Claimed before writing so a concurrent copy of this frame sees it
+                frameHashes[frameCount % DEDUP_WINDOW] = hash;
+                frameFiles[frameCount % DEDUP_WINDOW] = file;
+                frameCount++;
+            }
+        }
+        rawTotal.addAndGet(png.length);
+        if (earlier != null) {
+            duplicates.incrementAndGet();
+            return new Artifact(label, Kind.SCREENSHOT, null, earlier, png.length, 0);
+        }
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(png.length / 2);
+        ImageIO.write(image, "png", encoded);
+        // Re-encoding an unscaled frame does not always beat the device's own PNG
+        byte[] bytes = encoded.size() < png.length ? encoded.toByteArray() : png;
+        write(file, bytes);
+        return new Artifact(label, Kind.SCREENSHOT, file, null, png.length, bytes.length);
+    }
+
+    private static Artifact storeSource(String label, String name, byte[] xml) throws IOException {
+        String checksum = sha256(xml);
+        Path file = DIR.resolve(name + ".xml.gz");
+        Path earlier;
+        synchronized (sources) {
+            earlier = sources.putIfAbsent(checksum, file);
+            if (earlier == null && sources.size() > DEDUP_WINDOW) {
+                sources.remove(sources.keySet().iterator().next());
+            }
+        }
+        rawTotal.addAndGet(xml.length);
+        if (earlier != null) {
+            duplicates.incrementAndGet();
+            return new Artifact(label, Kind.PAGE_SOURCE, null, earlier, xml.length, 0);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(xml.length / 8);
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(xml);
+        }
+        write(file, compressed.toByteArray());
+        return new Artifact(label, Kind.PAGE_SOURCE, file, null, xml.length, compressed.size());
+    }
+
+    private static void write(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, bytes);
+        written.incrementAndGet();
+        storedTotal.addAndGet(bytes.length);
+    }
+
+    private static BufferedImage scaled(BufferedImage image) {
+        if (MAX_WIDTH <= 0 || image.getWidth() <= MAX_WIDTH) {
+            return image;
+        }
+        int height = Math.max(1, (int) ((long) image.getHeight() * MAX_WIDTH / image.getWidth()));
+        BufferedImage target = new BufferedImage(MAX_WIDTH, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, MAX_WIDTH, height, null);
+        g.dispose();
+        return target;
+    }
+
+    // Difference hash: the frame is averaged down to 9x8 grey cells and each bit says
+    // whether a cell is brighter than its right neighbour
+    static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[] sums = new long[9 * 8];
+        int[] counts = new int[9 * 8];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellY = y * 8 / height;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int grey = (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+                int cell = cellY * 9 + x * 9 / width;
+                sums[cell] += grey;
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int left = y * 9 + x;
+                long leftMean = counts[left] == 0 ? 0 : sums[left] / counts[left];
+                long rightMean = counts[left + 1] == 0 ? 0 : sums[left + 1] / counts[left + 1];
+                hash = (hash << 1) | (leftMean > rightMean ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    // At most DEDUP_WINDOW primitive compares; caller holds the frameHashes lock
+    private static Path nearestFrame(long hash) {
+        for (int i = 0, n = Math.min(frameCount, DEDUP_WINDOW); i < n; i++) {
+            if (Long.bitCount(frameHashes[i] ^ hash) <= DEDUP_DISTANCE) {
+                return frameFiles[i];
+            }
+        }
+        return null;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("❌ SHA-256 unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    private static String relative(Path sidecar, Path file) {
+        if (file == null) {
+            return "";
+        }
+        Path base = sidecar.toAbsolutePath().getParent();
+        return (base == null ? file : base.relativize(file)).toString().replace('\\', '/');
+    }
+
+    private static String quote(String value) {
+        return "\"" + (value == null ? "" : value.replace("\"", "\"\"")) + "\"";
+    }
+
+    // Lets queued encodes and index rows finish before the JVM exits
+    private static void drain() {
+        encoders.shutdown();
+        try {
+            if (!encoders.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("⚠️ Failure artifacts still encoding at exit, some may be missing");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (written.get() + duplicates.get() + dropped.get() == 0) {
+            return;
+        }
+        System.out.println("🖼️ Failure artifacts: " + written.get() + " file(s) in " + DIR + ", "
+            + duplicates.get() + " duplicate(s) skipped, " + dropped.get() + " step capture(s) dropped, "
+            + rawTotal.get() / 1024 + " KB captured -> " + storedTotal.get() / 1024 + " KB stored");
+    }
+}
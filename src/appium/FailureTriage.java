@@ -0,0 +1,273 @@
+package appium;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Groups failures from any number of test report CSVs (ecozym_login_test_report_*
+// and ResultSink run files) by normalized error message and ranks the groups
+// by time lost. Files are streamed one row at a time and the cluster table is
+// pruned back to --max-clusters whenever it doubles, so memory stays bounded
+// no matter how many historical reports are scanned.
+//
+// Usage:
+//   FailureTriage [--top 20] [--max-clusters 5000] <report.csv | directory>...
+public class FailureTriage {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_EXAMPLE_TEST_CASES = 5;
+
+    // A longer gap between two rows means the run was paused, not that the test ran that long
+    private static final long MAX_ROW_GAP_MS = 10 * 60 * 1000;
+
+    // Selenium appends build/driver/session details after the actual message
+    private static final Pattern DIAGNOSTIC_TAIL = Pattern.compile("\\s*(\\(Session info:|Build info:|System info:|Driver info:|For documentation on this error).*", Pattern.DOTALL);
+    private static final Pattern UUID = Pattern.compile("\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern HEX_ID = Pattern.compile("\\b(?=[0-9a-fA-F]*\\d)(?=[0-9a-fA-F]*[a-fA-F])[0-9a-fA-F]{16,}\\b");
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // "tried for 20 second(s)", "Timed out after 120 s", "after 500 ms"
+    private static final Pattern TRIED_FOR = Pattern.compile("tried for (\\d+) second");
+    private static final Pattern AFTER = Pattern.compile("(?:timed out|timeout|waiting|waited)\\D{0,40}?(\\d+(?:\\.\\d+)?) ?(ms|milliseconds|s|sec|seconds?)\\b",
+        Pattern.CASE_INSENSITIVE);
+
+    public static class Cluster {
+        final String signature;
+        final String example;
+        final Set<String> testCases = new LinkedHashSet<>();
+        long count;
+        long lostMs;
+        long timeoutMs;
+        String firstSeen;
+        String lastSeen;
+
+        Cluster(String signature, String example) {
+            this.signature = signature;
+            this.example = example;
+        }
+    }
+
+    private final int maxClusters;
+    private final Map<String, Cluster> clusters = new HashMap<>();
+    private long filesScanned;
+    private long rowsScanned;
+    private long failures;
+    private long prunedClusters;
+    private long prunedLostMsCeiling;
+
+    public FailureTriage(int maxClusters) {
+        this.maxClusters = maxClusters;
+    }
+
+    // Collapses the parts of a message that differ between occurrences of the same failure
+    public static String normalize(String message) {
+        String text = message == null ? "" : message;
+        text = DIAGNOSTIC_TAIL.matcher(text).replaceFirst("");
+        text = UUID.matcher(text).replaceAll("<id>");
+        text = HEX_ID.matcher(text).replaceAll("<id>");
+        text = EMAIL.matcher(text).replaceAll("<email>");
+        text = NUMBER.matcher(text).replaceAll("#");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    // Wait time declared in the message itself, 0 when it does not mention one
+    public static long declaredTimeoutMs(String message) {
+        if (message == null) {
+            return 0;
+        }
+        Matcher tried = TRIED_FOR.matcher(message);
+        if (tried.find()) {
+            return Long.parseLong(tried.group(1)) * 1000;
+        }
+        Matcher after = AFTER.matcher(message);
+        if (after.find()) {
+            double value = Double.parseDouble(after.group(1));
+            String unit = after.group(2).toLowerCase(Locale.ROOT);
+            return (long) (unit.startsWith("m") ? value : value * 1000);
+        }
+        return 0;
+    }
+
+    public void scan(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".csv"))::iterator) {
+                    scanFile(file);
+                }
+            }
+        } else {
+            scanFile(path);
+        }
+    }
+
+    private void scanFile(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = TestCaseSource.readCsvRecord(reader);
+            if (header == null || header.isEmpty()) {
+                return;
+            }
+            header.set(0, header.get(0).replace("\uFEFF", ""));
+            int id = header.indexOf("Test Case ID");
+            int status = header.indexOf("Status");
+            int timestamp = header.indexOf("Timestamp");
+            int error = header.indexOf("Error Message");
+            if (id < 0 || status < 0 || error < 0) {
+                // Summary sidecars, step-latency.csv and other CSVs are not test reports
+                return;
+            }
+            filesScanned++;
+
+            LocalDateTime previous = null;
+            List<String> fields;
+            while ((fields = TestCaseSource.readCsvRecord(reader)) != null) {
+                if (!fields.isEmpty() && fields.get(0).startsWith("===")) {
+                    break;
+                }
+                if (fields.size() <= Math.max(status, error)) {
+                    continue;
+                }
+                rowsScanned++;
+                String stamp = timestamp >= 0 && timestamp < fields.size() ? fields.get(timestamp) : "";
+                LocalDateTime time = parseTimestamp(stamp);
+                long sincePreviousMs = previous != null && time != null ? Duration.between(previous, time).toMillis() : 0;
+                if (sincePreviousMs < 0 || sincePreviousMs > MAX_ROW_GAP_MS) {
+                    sincePreviousMs = 0;
+                }
+                if (time != null) {
+                    previous = time;
+                }
+                if (!"PASS".equalsIgnoreCase(fields.get(status).trim())) {
+                    record(fields.get(id), fields.get(error), stamp, sincePreviousMs);
+                }
+            }
+        }
+    }
+
+    private void record(String testCaseId, String message, String stamp, long sincePreviousMs) {
+        failures++;
+        String signature = normalize(message);
+        Cluster cluster = clusters.get(signature);
+        if (cluster == null) {
+            String example = DIAGNOSTIC_TAIL.matcher(message == null ? "" : message).replaceFirst("").trim();
+            cluster = new Cluster(signature, example);
+            clusters.put(signature, cluster);
+        }
+        // Time lost: the wait the message declares, or else how long the failing test case ran
+        long timeoutMs = declaredTimeoutMs(message);
+        cluster.count++;
+        cluster.timeoutMs += timeoutMs;
+        cluster.lostMs += Math.max(timeoutMs, sincePreviousMs);
+        if (cluster.testCases.size() < MAX_EXAMPLE_TEST_CASES) {
+            cluster.testCases.add(testCaseId);
+        }
+        if (!stamp.isEmpty()) {
+            if (cluster.firstSeen == null || stamp.compareTo(cluster.firstSeen) < 0) {
+                cluster.firstSeen = stamp;
+            }
+            if (cluster.lastSeen == null || stamp.compareTo(cluster.lastSeen) > 0) {
+                cluster.lastSeen = stamp;
+            }
+        }
+        if (clusters.size() >= maxClusters * 2) {
+            prune();
+        }
+    }
+
+    // Keeps the maxClusters heaviest clusters; anything dropped lost at most prunedLostMsCeiling
+    private void prune() {
+        List<Cluster> ranked = ranked();
+        for (Cluster dropped : ranked.subList(maxClusters, ranked.size())) {
+            clusters.remove(dropped.signature);
+            prunedLostMsCeiling = Math.max(prunedLostMsCeiling, dropped.lostMs);
+            prunedClusters++;
+        }
+    }
+
+    public List<Cluster> ranked() {
+        List<Cluster> ranked = new ArrayList<>(clusters.values());
+        ranked.sort(Comparator.comparingLong((Cluster c) -> c.lostMs).thenComparingLong(c -> c.count).reversed());
+        return ranked;
+    }
+
+    public void printReport(int top) {
+        List<Cluster> ranked = ranked();
+        System.out.println("\n=== FAILURE TRIAGE ===");
+        System.out.println("Reports: " + filesScanned + ", rows: " + rowsScanned + ", failures: " + failures
+            + ", distinct causes: " + clusters.size());
+        int rank = 0;
+        for (Cluster cluster : ranked.subList(0, Math.min(top, ranked.size()))) {
+            rank++;
+            System.out.printf(Locale.ROOT, "%n#%d  %s lost, %d failures (%s in declared waits)%n",
+                rank, formatDuration(cluster.lostMs), cluster.count, formatDuration(cluster.timeoutMs));
+            System.out.println("    " + cluster.signature);
+            System.out.println("    e.g. " + cluster.example);
+            System.out.println("    test cases: " + String.join(", ", cluster.testCases)
+                + (cluster.firstSeen == null ? "" : "; seen " + cluster.firstSeen + " .. " + cluster.lastSeen));
+        }
+        if (prunedClusters > 0) {
+            System.out.println("\n⚠️ " + prunedClusters + " rare causes pruned to bound memory (each under "
+                + formatDuration(prunedLostMsCeiling) + " lost)");
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return value.isEmpty() ? null : LocalDateTime.parse(value, TIMESTAMP);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String formatDuration(long ms) {
+        if (ms < 1000) {
+            return ms + " ms";
+        }
+        long seconds = ms / 1000;
+        if (seconds < 3600) {
+            return String.format(Locale.ROOT, "%dm %02ds", seconds / 60, seconds % 60);
+        }
+        return String.format(Locale.ROOT, "%dh %02dm", seconds / 3600, (seconds % 3600) / 60);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int top = 20;
+        int maxClusters = 5000;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--top" -> top = Integer.parseInt(args[++i]);
+                case "--max-clusters" -> maxClusters = Integer.parseInt(args[++i]);
+                default -> inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add(Paths.get("reports"));
+        }
+
+        FailureTriage triage = new FailureTriage(maxClusters);
+        for (Path input : inputs) {
+            System.out.println("📂 Scanning " + input.toAbsolutePath());
+            triage.scan(input);
+        }
+        triage.printReport(top);
+    }
+}
@@ -0,0 +1,161 @@
+package appium;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+// WebDriver transport on java.net.http instead of Selenium's OkHttp client.
+// Every driver shares one JDK client: one selector thread for all sockets, a
+// keep-alive connection pool per server, completions on virtual threads. A
+// blocked command parks its (virtual) caller instead of holding a platform
+// thread, and an interrupt (ScenarioExecutor timeout) aborts the exchange.
+//
+//   -Dwebdriver.http.factory=okhttp   switches back to Selenium's default client
+public class JdkHttpClient implements HttpClient {
+    // java.net.http manages these itself and rejects them on a request
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final Factory SHARED_FACTORY = new Factory();
+
+    private final java.net.http.HttpClient client;
+    private final String baseUrl;
+    private final Duration readTimeout;
+
+    private JdkHttpClient(java.net.http.HttpClient client, URL url, Duration readTimeout) {
+        String base = url.toString();
+        this.client = client;
+        this.baseUrl = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.readTimeout = readTimeout;
+    }
+
+    // The transport every driver in the harness should use
+    public static HttpClient.Factory factory() {
+        if ("okhttp".equalsIgnoreCase(System.getProperty("webdriver.http.factory"))) {
+            return HttpClient.Factory.createDefault();
+        }
+        return SHARED_FACTORY;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        // The exchange itself, not a dependent stage, so cancelling it reaches the connection
+        CompletableFuture<java.net.http.HttpResponse<byte[]>> exchange =
+            client.sendAsync(toJdkRequest(request), java.net.http.HttpResponse.BodyHandlers.ofByteArray());
+        try {
+            return toSeleniumResponse(exchange.get());
+        } catch (InterruptedException e) {
+            // Aborts the request in flight and frees its pooled connection
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during " + request.getMethod() + " " + request.getUri());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // Non-blocking variant: completes on a virtual thread once the response body has arrived
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+        return client.sendAsync(toJdkRequest(request), java.net.http.HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(JdkHttpClient::toSeleniumResponse);
+    }
+
+    private java.net.http.HttpRequest toJdkRequest(HttpRequest request) {
+        StringBuilder uri = new StringBuilder(baseUrl).append(request.getUri());
+        char separator = request.getUri().contains("?") ? '&' : '?';
+        for (String name : request.getQueryParameterNames()) {
+            for (String value : request.getQueryParameters(name)) {
+                uri.append(separator).append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+
+        java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(URI.create(uri.toString()))
+            .timeout(readTimeout);
+        for (String name : request.getHeaderNames()) {
+            if (RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            for (String value : request.getHeaders(name)) {
+                builder.header(name, value);
+            }
+        }
+
+        // Command payloads are JSON text in the message's declared charset
+        String body = request.getMethod() == HttpMethod.GET ? "" : request.getContentString();
+        builder.method(request.getMethod().name(), body.isEmpty()
+            ? java.net.http.HttpRequest.BodyPublishers.noBody()
+            : java.net.http.HttpRequest.BodyPublishers.ofString(body, request.getContentEncoding()));
+        return builder.build();
+    }
+
+    private static HttpResponse toSeleniumResponse(java.net.http.HttpResponse<byte[]> raw) {
+        HttpResponse response = new HttpResponse();
+        response.setStatus(raw.statusCode());
+        raw.headers().map().forEach((name, values) -> {
+            for (String value : values) {
+                response.addHeader(name, value);
+            }
+        });
+        response.setContent(raw.body());
+        response.setTargetHost(raw.uri().getScheme() + "://" + raw.uri().getAuthority());
+        return response;
+    }
+
+    public static class Factory implements HttpClient.Factory {
+        // One JDK client (and connection pool) per connect timeout + proxy combination
+        private final Map<String, java.net.http.HttpClient> clients = new ConcurrentHashMap<>();
+
+        @Override
+        public HttpClient.Builder builder() {
+            return new HttpClient.Builder() {
+                @Override
+                public HttpClient createClient(URL url) {
+                    String key = connectionTimeout + "|" + proxy;
+                    java.net.http.HttpClient client = clients.computeIfAbsent(key, k -> newClient(connectionTimeout, proxy));
+                    return new JdkHttpClient(client, url, readTimeout);
+                }
+            };
+        }
+
+        @Override
+        public void cleanupIdleClients() {
+            // java.net.http closes idle keep-alive connections on its own
+        }
+
+        private static java.net.http.HttpClient newClient(Duration connectTimeout, java.net.Proxy proxy) {
+            java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+                .version(Version.HTTP_1_1)
+                .followRedirects(Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor());
+            if (proxy != null && proxy.address() instanceof InetSocketAddress address) {
+                builder.proxy(ProxySelector.of(address));
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package appium;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Serves the offline copy of the krs.usk.ac.id pages in src/appium/fixtures/krs
+// so the Cek NPM scenarios can run without network access. "/" maps to
+// index.html and extension-less paths to <path>.html.
+public final class KrsFixtureServer implements AutoCloseable {
+    private static final Path FIXTURE_ROOT = Paths.get("src/appium/fixtures/krs");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public KrsFixtureServer(int port) throws IOException {
+        if (!Files.isDirectory(FIXTURE_ROOT)) {
+            throw new IOException("❌ KRS fixture directory not found at: " + FIXTURE_ROOT.toAbsolutePath());
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        System.out.println("🧪 KRS fixture server listening on " + url());
+    }
+
+    // Base URL with trailing slash, interchangeable with https://krs.usk.ac.id/
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/") || path.isEmpty()) {
+            path = "/index.html";
+        } else if (!path.substring(path.lastIndexOf('/')).contains(".")) {
+            path = path + ".html";
+        }
+
+        Path file = FIXTURE_ROOT.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(FIXTURE_ROOT) || !Files.isRegularFile(file)) {
+            send(exchange, 404, "text/plain; charset=utf-8", ("Not found: " + path).getBytes());
+            return;
+        }
+        String type = path.endsWith(".html") ? "text/html; charset=utf-8"
+            : path.endsWith(".js") ? "application/javascript"
+            : path.endsWith(".css") ? "text/css"
+            : "application/octet-stream";
+        send(exchange, 200, type, Files.readAllBytes(file));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package appium;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// HDR-style log-linear histogram of latencies in microseconds. Values below
+// 32 us get exact buckets; above that each power of two is split into 16
+// sub-buckets (~6% worst-case relative error). Recording is a single atomic
+// increment, so it is cheap enough to wrap every WebDriver command.
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKETS = 16;
+    private static final int MAX_EXPONENT = 40; // ~12.7 days, far beyond any step timeout
+    static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - 5 + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void recordMicros(long micros) {
+        counts.incrementAndGet(bucketOf(Math.max(0, micros)));
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // Upper edge of the bucket holding the given percentile, in microseconds
+    public long percentileMicros(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return upperEdge(i);
+            }
+        }
+        return upperEdge(BUCKET_COUNT - 1);
+    }
+
+    public long maxMicros() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return upperEdge(i);
+            }
+        }
+        return 0;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long value = other.counts.get(i);
+            if (value > 0) {
+                counts.addAndGet(i, value);
+            }
+        }
+    }
+
+    public void addBucket(int bucket, long count) {
+        if (bucket >= 0 && bucket < BUCKET_COUNT) {
+            counts.addAndGet(bucket, count);
+        }
+    }
+
+    // Sparse "bucket:count,bucket:count" form used by the persisted histogram file
+    public String encode() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long value = counts.get(i);
+            if (value > 0) {
+                if (out.length() > 0) {
+                    out.append(',');
+                }
+                out.append(i).append(':').append(value);
+            }
+        }
+        return out.toString();
+    }
+
+    public static LatencyHistogram decode(String encoded) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (encoded == null || encoded.isBlank()) {
+            return histogram;
+        }
+        for (String entry : encoded.split(",")) {
+            int colon = entry.indexOf(':');
+            histogram.addBucket(Integer.parseInt(entry.substring(0, colon).trim()),
+                Long.parseLong(entry.substring(colon + 1).trim()));
+        }
+        return histogram;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - 4)) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - 5) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperEdge(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 5;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - 4);
+        return (SUB_BUCKETS + subBucket + 1) * width - 1;
+    }
+}
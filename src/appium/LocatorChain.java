@@ -0,0 +1,143 @@
+package appium;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+// Ordered fallback strategies for one logical element (e.g. "Log In button").
+// The strategy that last worked is remembered in a local cache file and tried
+// first on the next run with a short probe timeout, so a known-bad primary
+// locator no longer costs the full WebDriverWait timeout every time.
+// Last-resort strategies (e.g. a coordinate tap) cannot tell whether they hit
+// the element, so they run only after every other strategy and are never
+// remembered.
+public class LocatorChain {
+    public interface Strategy {
+        void attempt(WebDriverWait wait) throws Exception;
+    }
+
+    private record NamedStrategy(String name, Strategy strategy, boolean verifiable) {
+    }
+
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("locator.cache", ".locator-cache.properties"));
+    private static final long PROBE_TIMEOUT_SECONDS = 2;
+    private static final Properties winners = loadCache();
+
+    private final WebDriver driver;
+    private final String element;
+    private final long timeoutSeconds;
+    private final List<NamedStrategy> strategies = new ArrayList<>();
+
+    private LocatorChain(WebDriver driver, String element, long timeoutSeconds) {
+        this.driver = driver;
+        this.element = element;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public static LocatorChain of(WebDriver driver, String element, long timeoutSeconds) {
+        return new LocatorChain(driver, element, timeoutSeconds);
+    }
+
+    public LocatorChain then(String strategyName, Strategy strategy) {
+        strategies.add(new NamedStrategy(strategyName, strategy, true));
+        return this;
+    }
+
+    // Tried after all verifiable strategies, never cached
+    public LocatorChain lastResort(String strategyName, Strategy strategy) {
+        strategies.add(new NamedStrategy(strategyName, strategy, false));
+        return this;
+    }
+
+    // Runs the chain and returns the name of the strategy that succeeded
+    public String run() {
+        String cached = cachedWinner();
+        Exception lastFailure = null;
+
+        if (cached != null) {
+            NamedStrategy preferred = find(cached);
+            if (preferred != null && preferred.verifiable()) {
+                try {
+                    preferred.strategy().attempt(ScreenEvents.waitFor(driver, PROBE_TIMEOUT_SECONDS));
+                    System.out.println("🎯 " + element + ": cached strategy '" + cached + "' hit");
+                    return cached;
+                } catch (Exception e) {
+                    System.out.println("⚠️ " + element + ": cached strategy '" + cached + "' missed, trying full chain");
+                    lastFailure = e;
+                }
+            }
+        }
+
+        // A cached strategy that missed its short probe gets its normal timeout here
+        List<NamedStrategy> ordered = new ArrayList<>();
+        strategies.stream().filter(NamedStrategy::verifiable).forEach(ordered::add);
+        strategies.stream().filter(candidate -> !candidate.verifiable()).forEach(ordered::add);
+        for (NamedStrategy candidate : ordered) {
+            try {
+                candidate.strategy().attempt(ScreenEvents.waitFor(driver, timeoutSeconds));
+                if (candidate.verifiable()) {
+                    remember(candidate.name());
+                } else {
+                    System.out.println("⚠️ " + element + ": fell back to last-resort strategy '" + candidate.name() + "', not cached");
+                }
+                return candidate.name();
+            } catch (Exception e) {
+                System.out.println("⚠️ " + element + ": strategy '" + candidate.name() + "' failed");
+                lastFailure = e;
+            }
+        }
+
+        throw new RuntimeException("All locator strategies failed for " + element, lastFailure);
+    }
+
+    private NamedStrategy find(String name) {
+        for (NamedStrategy candidate : strategies) {
+            if (candidate.name().equals(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private String cachedWinner() {
+        synchronized (winners) {
+            return winners.getProperty(element);
+        }
+    }
+
+    private void remember(String strategyName) {
+        synchronized (winners) {
+            if (strategyName.equals(winners.getProperty(element))) {
+                return;
+            }
+            winners.setProperty(element, strategyName);
+            try (OutputStream out = Files.newOutputStream(CACHE_FILE)) {
+                winners.store(out, "Winning locator strategy per logical element");
+            } catch (IOException e) {
+                System.err.println("❌ Cannot write locator cache " + CACHE_FILE + ": " + e.getMessage());
+            }
+        }
+        System.out.println("💾 " + element + ": learned strategy '" + strategyName + "'");
+    }
+
+    private static Properties loadCache() {
+        Properties properties = new Properties();
+        if (Files.exists(CACHE_FILE)) {
+            try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot read locator cache " + CACHE_FILE + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+}
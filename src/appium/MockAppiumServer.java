@@ -0,0 +1,660 @@
+package appium;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.imageio.ImageIO;
+
+import org.openqa.selenium.json.Json;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// In-process stand-in for an Appium/UiAutomator2 server speaking the W3C
+// protocol. Every session walks a small state machine over the recorded
+// Ecozym screens in src/appium/fixtures/ecozym: element lookups are answered
+// from the current screen's page source and clicks/taps move to the next
+// screen. Latency, jitter, slow session starts and random failures can be
+// injected, and requests are handled on virtual threads, so thousands of
+// simulated sessions can run against one instance.
+//
+// Load test:
+//   MockAppiumServer --load 500 [--latency 20] [--jitter 10] [--failure-rate 0.01] [--session-start 300]
+public final class MockAppiumServer implements AutoCloseable {
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String APP_PACKAGE = "com.ecozym.wastemanagement";
+    private static final String LAUNCHER_PACKAGE = "com.google.android.apps.nexuslauncher";
+    private static final Path SCREEN_DIR = Paths.get("src/appium/fixtures/ecozym");
+    private static final String START_SCREEN = "sign_in";
+
+    // Resource id (after ":id/") clicked -> next screen
+    private static final Map<String, String> TRANSITIONS = Map.ofEntries(
+        Map.entry("btn_signIn", "login"),
+        Map.entry("btnLogin", "dashboard"),
+        Map.entry("navHome", "dashboard"),
+        Map.entry("navTruck", "waste_pickup_tracking"),
+        Map.entry("navTrash", "register_waste"),
+        Map.entry("navReport", "report"),
+        Map.entry("navArticle", "pricing_guide"),
+        Map.entry("btnProfile", "profile"),
+        Map.entry("btnLogout", "logout_dialog"),
+        Map.entry("button1", START_SCREEN),
+        Map.entry("button2", "profile"));
+
+    // The one account the recorded app accepts; anything else stays on login with a toast
+    private static final Map<String, String> ACCOUNTS = Map.of("user@gmail.com", "12345678");
+    private static final long TOAST_MS = 3500;
+
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'|\"([^\"]*)\"");
+    private static final Pattern CLASS_NAME = Pattern.compile("(androidx?\\.[\\w.]+)");
+    private static final Pattern TAP_X = Pattern.compile("\"x\"\\s*:\\s*(-?[\\d.]+)");
+    private static final Pattern TAP_Y = Pattern.compile("\"y\"\\s*:\\s*(-?[\\d.]+)");
+    private static final Pattern ACTIVITY = Pattern.compile("\\(([.\\w]+Activity)\\)");
+
+    // Injected behavior; strict mode answers unknown locators with "no such element"
+    public record Config(long latencyMs, long jitterMs, double failureRate, long sessionStartMs, boolean strict) {
+        public static Config latency(long latencyMs) {
+            return new Config(latencyMs, 0, 0, 0, false);
+        }
+    }
+
+    private record Screen(String name, String activity, String source, ScreenSnapshot snapshot) {
+    }
+
+    private static final class Session {
+        volatile String screen = START_SCREEN;
+        volatile boolean running = true;
+        // Text typed per resource id (after ":id/"), and the toast on screen until toastUntil
+        final Map<String, String> typed = new ConcurrentHashMap<>();
+        volatile String toast;
+        volatile long toastUntil;
+    }
+
+    private static volatile Map<String, Screen> screens;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Config config;
+    private final Json json = new Json();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, String> screenshots = new ConcurrentHashMap<>();
+    private final AtomicInteger elementCounter = new AtomicInteger();
+    private final AtomicInteger commandCounter = new AtomicInteger();
+    private final AtomicInteger failureCounter = new AtomicInteger();
+    private final AtomicInteger sessionCounter = new AtomicInteger();
+
+    public MockAppiumServer(int port, long commandLatencyMs) throws IOException {
+        this(port, Config.latency(commandLatencyMs));
+    }
+
+    public MockAppiumServer(int port, Config config) throws IOException {
+        this.config = config;
+        loadScreens();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        System.out.println("🧪 Mock Appium server listening on " + url() + " (" + screens.size() + " recorded screens)");
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public int commandCount() {
+        return commandCounter.get();
+    }
+
+    public int failureCount() {
+        return failureCounter.get();
+    }
+
+    // Sessions created since start, including ones already deleted
+    public int sessionsCreated() {
+        return sessionCounter.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        commandCounter.incrementAndGet();
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String[] parts = path.replaceAll("^/+|/+$", "").split("/");
+        boolean newSession = method.equals("POST") && path.equals("/session");
+
+        pause(config.latencyMs() + (config.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(config.jitterMs() + 1) : 0)
+            + (newSession ? config.sessionStartMs() : 0));
+
+        if (path.equals("/status")) {
+            respond(exchange, 200, "{\"value\":{\"ready\":true,\"message\":\"mock\"}}");
+            return;
+        }
+        if (newSession) {
+            respond(exchange, 200, createSession(requestBody));
+            return;
+        }
+        if (parts.length < 2 || !parts[0].equals("session")) {
+            respond(exchange, 404, error("unknown command", "Unknown endpoint " + method + " " + path));
+            return;
+        }
+
+        String sessionId = parts[1];
+        if (method.equals("DELETE") && parts.length == 2) {
+            sessions.remove(sessionId);
+            respond(exchange, 200, "{\"value\":null}");
+            return;
+        }
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            respond(exchange, 404, error("invalid session id", "Unknown session " + sessionId));
+            return;
+        }
+        if (config.failureRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.failureRate()) {
+            failureCounter.incrementAndGet();
+            respond(exchange, 500, error("unknown error", "Injected failure for " + method + " " + path));
+            return;
+        }
+
+        String command = String.join("/", List.of(parts).subList(2, parts.length));
+        String[] reply = sessionCommand(session, method, command, requestBody);
+        respond(exchange, Integer.parseInt(reply[0]), reply[1]);
+    }
+
+    // Returns {status, body} for a command inside a session
+    private String[] sessionCommand(Session session, String method, String command, String requestBody) {
+        Screen screen = screens.get(session.screen);
+
+        if (command.equals("source")) {
+            return ok(jsonString(screen.source()));
+        }
+        if (command.equals("screenshot")) {
+            return ok(jsonString(screenshot(screen)));
+        }
+        if (command.equals("window/rect") || command.equals("window/current/size") || command.equals("window/size")) {
+            ScreenSnapshot.UiNode root = screen.snapshot().first(node -> node.bounds() != null);
+            int width = root == null ? 1080 : root.bounds().width();
+            int height = root == null ? 2340 : root.bounds().height();
+            return ok("{\"x\":0,\"y\":0,\"width\":" + width + ",\"height\":" + height + "}");
+        }
+        if (method.equals("POST") && (command.equals("element") || command.equals("elements")
+            || command.matches("element/[^/]+/elements?"))) {
+            return findElements(session, screen, command.endsWith("elements"), requestBody);
+        }
+        if (command.startsWith("element/")) {
+            return elementCommand(session, screen, method, command, requestBody);
+        }
+        if (command.equals("touch/perform") || command.equals("actions")) {
+            tapAt(session, screen, requestBody);
+            return ok("null");
+        }
+        if (command.equals("appium/device/current_package")) {
+            return ok(jsonString(session.running ? APP_PACKAGE : LAUNCHER_PACKAGE));
+        }
+        if (command.equals("appium/device/current_activity")) {
+            return ok(jsonString(screen.activity()));
+        }
+        if (command.equals("appium/device/app_state")) {
+            return ok(session.running ? "4" : "1");
+        }
+        if (command.equals("appium/device/terminate_app")) {
+            session.running = false;
+            return ok("true");
+        }
+        if (command.equals("appium/device/activate_app")) {
+            session.running = true;
+            session.screen = START_SCREEN;
+            return ok("null");
+        }
+        if (command.equals("execute/sync") && requestBody.contains("mobile: clearApp")) {
+            session.screen = START_SCREEN;
+            return ok("true");
+        }
+        return ok("null");
+    }
+
+    // Base64 PNG of the screen: node bounds drawn as flat boxes, clickable ones darker
+    private String screenshot(Screen screen) {
+        return screenshots.computeIfAbsent(screen.name(), name -> {
+            ScreenSnapshot.UiNode root = screen.snapshot().first(node -> node.bounds() != null);
+            int width = root == null ? 1080 : Math.max(1, root.bounds().width());
+            int height = root == null ? 2340 : Math.max(1, root.bounds().height());
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            for (ScreenSnapshot.UiNode node : screen.snapshot().nodes()) {
+                ScreenSnapshot.Bounds b = node.bounds();
+                if (b == null || node == root) {
+                    continue;
+                }
+                g.setColor(node.clickable() ? new Color(0x2E7D32) : node.text() != null && !node.text().isEmpty() ? new Color(0x9E9E9E) : new Color(0xEEEEEE));
+                g.fillRect(b.x(), b.y(), b.width(), b.height());
+            }
+            g.dispose();
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "png", png);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Base64.getEncoder().encodeToString(png.toByteArray());
+        });
+    }
+
+    private String[] findElements(Session session, Screen screen, boolean multiple, String requestBody) {
+        Map<String, Object> locator = json.toType(requestBody, Json.MAP_TYPE);
+        String using = String.valueOf(locator.get("using"));
+        String value = String.valueOf(locator.get("value"));
+
+        if (using.equals("xpath") && value.contains("android.widget.Toast")) {
+            // UiAutomator2 finds a toast only by this xpath, for as long as it is shown
+            boolean shown = session.toast != null && System.currentTimeMillis() < session.toastUntil;
+            String element = "{\"" + ELEMENT_KEY + "\":\"toast\",\"ELEMENT\":\"toast\"}";
+            return shown ? ok(multiple ? "[" + element + "]" : element)
+                : multiple ? ok("[]") : new String[] {"404", error("no such element", "No toast is shown")};
+        }
+        List<Integer> matches = match(screen.snapshot().nodes(), using, value);
+        if (matches.isEmpty() && !config.strict()) {
+            // Lenient mode: screens that were not recorded still get a generic element
+            String id = "g" + elementCounter.incrementAndGet();
+            String element = "{\"" + ELEMENT_KEY + "\":\"" + id + "\",\"ELEMENT\":\"" + id + "\"}";
+            return ok(multiple ? "[" + element + "]" : element);
+        }
+        if (matches.isEmpty()) {
+            return multiple ? ok("[]")
+                : new String[] {"404", error("no such element", "No element matches " + using + "=" + value + " on " + screen.name())};
+        }
+
+        StringBuilder out = new StringBuilder(multiple ? "[" : "");
+        for (int i = 0; i < (multiple ? matches.size() : 1); i++) {
+            String id = screen.name() + "." + matches.get(i);
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("{\"").append(ELEMENT_KEY).append("\":\"").append(id).append("\",\"ELEMENT\":\"").append(id).append("\"}");
+        }
+        return ok(out.append(multiple ? "]" : "").toString());
+    }
+
+    private String[] elementCommand(Session session, Screen screen, String method, String command, String requestBody) {
+        String[] parts = command.split("/");
+        ScreenSnapshot.UiNode node = resolve(parts[1]);
+        boolean stale = node != null && !parts[1].startsWith(screen.name() + ".") && !persists(parts[1], node, screen);
+        String action = parts.length > 2 ? parts[2] : "";
+
+        if (stale && config.strict()) {
+            return new String[] {"404", error("stale element reference", "Element " + parts[1] + " is not on " + screen.name())};
+        }
+        if (parts[1].equals("toast") && action.equals("text")) {
+            return ok(jsonString(session.toast == null ? "" : session.toast));
+        }
+        if ((action.equals("value") || action.equals("clear")) && node != null && node.resourceId() != null) {
+            String id = node.resourceId().substring(node.resourceId().indexOf('/') + 1);
+            if (action.equals("clear")) {
+                session.typed.put(id, "");
+            } else {
+                session.typed.merge(id, typedText(requestBody), String::concat);
+            }
+            return ok("null");
+        }
+        if (action.equals("click")) {
+            if (node != null) {
+                follow(session, node);
+            }
+            return ok("null");
+        }
+        if (action.equals("text")) {
+            return ok(jsonString(node == null || node.text() == null ? "" : node.text()));
+        }
+        if (action.equals("displayed") || action.equals("enabled")) {
+            return ok(node == null ? "true" : String.valueOf(action.equals("enabled") ? node.enabled() : node.displayed()));
+        }
+        if (action.equals("rect") && node != null && node.bounds() != null) {
+            ScreenSnapshot.Bounds b = node.bounds();
+            return ok("{\"x\":" + b.x() + ",\"y\":" + b.y() + ",\"width\":" + b.width() + ",\"height\":" + b.height() + "}");
+        }
+        if (action.equals("attribute") && parts.length > 3) {
+            return ok(jsonString(node == null ? null : attribute(node, parts[3])));
+        }
+        return ok("null");
+    }
+
+    private String createSession(String requestBody) {
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        try {
+            Map<String, Object> request = json.toType(requestBody, Json.MAP_TYPE);
+            if (request.get("capabilities") instanceof Map<?, ?> w3c && w3c.get("alwaysMatch") instanceof Map<?, ?> always) {
+                always.forEach((k, v) -> capabilities.put(String.valueOf(k), v));
+            } else if (request.get("desiredCapabilities") instanceof Map<?, ?> desired) {
+                desired.forEach((k, v) -> capabilities.put(String.valueOf(k), v));
+            }
+        } catch (Exception e) {
+            // Echo what we can; an unparsable request still gets a session
+        }
+        capabilities.put("platformName", "Android");
+        capabilities.put("automationName", "UiAutomator2");
+
+        String sessionId = UUID.randomUUID().toString();
+        sessions.put(sessionId, new Session());
+        sessionCounter.incrementAndGet();
+        return "{\"value\":{\"sessionId\":\"" + sessionId + "\",\"capabilities\":" + json.toJson(capabilities) + "}}";
+    }
+
+    // W3C actions / TouchAction tap: the deepest clickable node under the point is clicked
+    private void tapAt(Session session, Screen screen, String requestBody) {
+        Matcher x = TAP_X.matcher(requestBody);
+        Matcher y = TAP_Y.matcher(requestBody);
+        if (!x.find() || !y.find()) {
+            return;
+        }
+        int tapX = (int) Double.parseDouble(x.group(1));
+        int tapY = (int) Double.parseDouble(y.group(1));
+        ScreenSnapshot.UiNode hit = null;
+        for (ScreenSnapshot.UiNode node : screen.snapshot().nodes()) {
+            ScreenSnapshot.Bounds b = node.bounds();
+            if (node.clickable() && b != null && tapX >= b.x() && tapX < b.x() + b.width() && tapY >= b.y() && tapY < b.y() + b.height()) {
+                hit = node;
+            }
+        }
+        if (hit != null) {
+            follow(session, hit);
+        }
+    }
+
+    private static void follow(Session session, ScreenSnapshot.UiNode node) {
+        if (node.resourceId() == null) {
+            return;
+        }
+        String id = node.resourceId().substring(node.resourceId().indexOf('/') + 1);
+        String next = TRANSITIONS.get(id);
+        if (id.equals("btnLogin") && !signIn(session)) {
+            return;
+        }
+        if (next != null && screens.containsKey(next)) {
+            session.screen = next;
+        }
+    }
+
+    // Checks what was typed on the login screen; a refusal shows a toast and keeps the screen
+    private static boolean signIn(Session session) {
+        String email = session.typed.getOrDefault("etEmail", "");
+        String password = session.typed.getOrDefault("etPassword", "");
+        if (email.isBlank() || password.isBlank()) {
+            session.toast = "Email and password are required";
+        } else if (!password.equals(ACCOUNTS.get(email))) {
+            session.toast = "Invalid email or password";
+        } else {
+            session.toast = null;
+            return true;
+        }
+        session.toastUntil = System.currentTimeMillis() + TOAST_MS;
+        return false;
+    }
+
+    // sendKeys body: W3C "text", or the legacy "value" array of chunks
+    private String typedText(String requestBody) {
+        Map<String, Object> body = json.toType(requestBody, Json.MAP_TYPE);
+        if (body.get("text") instanceof String text) {
+            return text;
+        }
+        return body.get("value") instanceof List<?> chunks
+            ? chunks.stream().map(String::valueOf).collect(Collectors.joining()) : "";
+    }
+
+    // Locator -> indices of matching nodes on the current screen
+    private static List<Integer> match(List<ScreenSnapshot.UiNode> nodes, String using, String value) {
+        List<Integer> result = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        String className = null;
+        boolean contains = false;
+
+        if (using.equals("xpath") || using.equals("-android uiautomator")) {
+            Matcher quoted = QUOTED.matcher(value);
+            while (quoted.find()) {
+                String literal = quoted.group(1) != null ? quoted.group(1) : quoted.group(2);
+                if (!literal.startsWith("android.") && !literal.startsWith("androidx.")) {
+                    literals.add(literal.toLowerCase(Locale.ROOT));
+                }
+            }
+            Matcher classMatcher = CLASS_NAME.matcher(value);
+            className = classMatcher.find() ? classMatcher.group(1) : null;
+            contains = value.contains("contains") || value.contains("Contains");
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ScreenSnapshot.UiNode node = nodes.get(i);
+            boolean matched = switch (using) {
+                case "id" -> node.resourceId() != null
+                    && (node.resourceId().equals(value) || node.resourceId().endsWith(":id/" + value));
+                case "accessibility id" -> value.equals(node.contentDesc());
+                case "class name" -> value.equals(node.className());
+                case "xpath", "-android uiautomator" -> (className == null || className.equals(node.className()))
+                    && (literals.isEmpty() ? className != null : matchesAny(node, literals, contains));
+                default -> false;
+            };
+            if (matched) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matchesAny(ScreenSnapshot.UiNode node, List<String> literals, boolean contains) {
+        for (String field : new String[] {node.text(), node.hint(), node.contentDesc(), node.resourceId()}) {
+            if (field == null || field.isEmpty()) {
+                continue;
+            }
+            String lower = field.toLowerCase(Locale.ROOT);
+            for (String literal : literals) {
+                if (lower.equals(literal) || (contains && !literal.isEmpty() && lower.contains(literal))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Element ids look like "<screen>.<node index>"; generic ids resolve to null
+    private static ScreenSnapshot.UiNode resolve(String elementId) {
+        int dot = elementId.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        Screen screen = screens.get(elementId.substring(0, dot));
+        try {
+            int index = Integer.parseInt(elementId.substring(dot + 1));
+            return screen == null || index >= screen.snapshot().nodes().size() ? null : screen.snapshot().nodes().get(index);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Views that survive a fragment switch (bottom nav, toolbar) keep their handles,
+    // as on a device: same activity, same resource-id, same bounds
+    private static boolean persists(String elementId, ScreenSnapshot.UiNode node, Screen current) {
+        Screen origin = screens.get(elementId.substring(0, elementId.lastIndexOf('.')));
+        if (origin == null || !origin.activity().equals(current.activity())
+            || node.resourceId() == null || node.resourceId().isEmpty()) {
+            return false;
+        }
+        return current.snapshot().first(candidate -> node.resourceId().equals(candidate.resourceId())
+            && Objects.equals(node.bounds(), candidate.bounds())) != null;
+    }
+
+    private static String attribute(ScreenSnapshot.UiNode node, String name) {
+        return switch (name) {
+            case "text", "name" -> node.text();
+            case "hint" -> node.hint();
+            case "resource-id", "resourceId" -> node.resourceId();
+            case "content-desc", "contentDescription" -> node.contentDesc();
+            case "class", "className" -> node.className();
+            case "enabled" -> String.valueOf(node.enabled());
+            case "displayed" -> String.valueOf(node.displayed());
+            case "clickable" -> String.valueOf(node.clickable());
+            case "bounds" -> node.bounds() == null ? null : "[" + node.bounds().x() + "," + node.bounds().y() + "]["
+                + (node.bounds().x() + node.bounds().width()) + "," + (node.bounds().y() + node.bounds().height()) + "]";
+            default -> null;
+        };
+    }
+
+    private static synchronized void loadScreens() throws IOException {
+        if (screens != null) {
+            return;
+        }
+        Map<String, Screen> loaded = new HashMap<>();
+        try (var files = Files.list(SCREEN_DIR)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".xml")).toList()) {
+                String name = file.getFileName().toString().replaceFirst("\\.xml$", "");
+                String source = Files.readString(file, StandardCharsets.UTF_8);
+                Matcher activity = ACTIVITY.matcher(source);
+                loaded.put(name, new Screen(name, activity.find() ? activity.group(1) : ".MainActivity", source, ScreenSnapshot.parse(source)));
+            }
+        }
+        if (!loaded.containsKey(START_SCREEN)) {
+            throw new IOException("❌ Recorded screens not found in " + SCREEN_DIR.toAbsolutePath());
+        }
+        screens = Map.copyOf(loaded);
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String[] ok(String value) {
+        return new String[] {"200", "{\"value\":" + value + "}"};
+    }
+
+    private static String error(String error, String message) {
+        return "{\"value\":{\"error\":" + jsonString(error) + ",\"message\":" + jsonString(message) + ",\"stacktrace\":\"\"}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    // Runs N concurrent simulated login flows and reports harness throughput
+    public static void main(String[] args) throws Exception {
+        int sessionCount = 100;
+        long latency = 20;
+        long jitter = 0;
+        double failureRate = 0;
+        long sessionStart = 0;
+        for (int i = 0; i < args.length - 1; i++) {
+            switch (args[i]) {
+                case "--load" -> sessionCount = Integer.parseInt(args[++i]);
+                case "--latency" -> latency = Long.parseLong(args[++i]);
+                case "--jitter" -> jitter = Long.parseLong(args[++i]);
+                case "--failure-rate" -> failureRate = Double.parseDouble(args[++i]);
+                case "--session-start" -> sessionStart = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("❌ Unknown option " + args[i]);
+            }
+        }
+
+        try (MockAppiumServer mock = new MockAppiumServer(0, new Config(latency, jitter, failureRate, sessionStart, false))) {
+            AtomicInteger passed = new AtomicInteger();
+            AtomicLong busyMs = new AtomicLong();
+            long start = System.currentTimeMillis();
+
+            try (ExecutorService flows = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < sessionCount; i++) {
+                    Device device = Device.simulated("sim-" + (i + 1), 0, mock.url());
+                    flows.submit(() -> {
+                        long flowStart = System.currentTimeMillis();
+                        try {
+                            EcozymAllFitur.runLoginOn(device);
+                            passed.incrementAndGet();
+                        } catch (Exception e) {
+                            System.err.println("❌ " + device.udid() + ": " + e.getMessage());
+                        } finally {
+                            busyMs.addAndGet(System.currentTimeMillis() - flowStart);
+                        }
+                    });
+                }
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            SessionPool.shared().shutdown();
+
+            System.out.println("\n=== SIMULATOR LOAD TEST ===");
+            System.out.println("Sessions: " + sessionCount + ", passed: " + passed.get());
+            System.out.println("Wall clock: " + elapsed + " ms, average flow: " + (busyMs.get() / Math.max(1, sessionCount)) + " ms");
+            System.out.println("Commands: " + mock.commandCount() + " (injected failures: " + mock.failureCount() + ")");
+            System.out.printf(Locale.ROOT, "Throughput: %.1f flows/s, %.0f commands/s%n",
+                sessionCount * 1000.0 / Math.max(1, elapsed), mock.commandCount() * 1000.0 / Math.max(1, elapsed));
+            System.out.println("Peak platform threads: " + ManagementFactory.getThreadMXBean().getPeakThreadCount());
+        }
+    }
+}
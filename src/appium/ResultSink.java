@@ -0,0 +1,184 @@
+package appium;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Append-only, crash-safe replacement for the end-of-run CSV dump. Every
+// TestResult row is written and forced to disk as soon as it completes, and
+// the "=== TEST SUMMARY ===" block is kept up to date in a sidecar
+// <run>.summary.csv file. One sink instance is shared by every worker thread
+// writing to the same run file; a file lock also keeps rows from separate
+// processes from interleaving. The summary counts every row in the file,
+// whichever process wrote it: under the lock, the rows appended since the
+// last count are parsed before the summary is rewritten.
+public class ResultSink implements AutoCloseable {
+    private static final Map<Path, ResultSink> openSinks = new HashMap<>();
+
+    private final Path file;
+    private final Path summaryFile;
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+    private int total = 0;
+    private int passed = 0;
+    // File offset up to which rows have been counted
+    private long counted = 0;
+    private int references = 0;
+
+    private ResultSink(Path file) throws IOException {
+        this.file = file;
+        String name = file.getFileName().toString().replaceFirst("\\.csv$", "");
+        this.summaryFile = file.resolveSibling(name + ".summary.csv");
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        // Appends go to the end of the file as seen under the lock (READ and APPEND cannot be combined)
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock = channel.lock();
+        try {
+            if (channel.size() == 0) {
+                write(TestReport.HEADER);
+            }
+            // Resuming an existing run file: seed the summary counters from its rows
+            countNewRows();
+        } finally {
+            lock.release();
+        }
+    }
+
+    public static Path newRunFile() {
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        return Paths.get("reports", "ecozym_run_" + stamp + ".csv");
+    }
+
+    // Returns the shared sink for this run file; every open() needs a matching close()
+    public static ResultSink open(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        synchronized (openSinks) {
+            ResultSink sink = openSinks.get(key);
+            if (sink == null) {
+                sink = new ResultSink(key);
+                openSinks.put(key, sink);
+                System.out.println("📄 Streaming test results to " + key);
+            }
+            sink.references++;
+            return sink;
+        }
+    }
+
+    public void append(TestResult result) throws IOException {
+        append(result, -1);
+    }
+
+    // Also feeds the row (and its duration, when known) into the ResultStore history
+    public synchronized void append(TestResult result, long durationMs) throws IOException {
+        FileLock lock = channel.lock();
+        try {
+            write(TestReport.toCsvRow(result));
+            countNewRows();
+            writeSummary();
+        } finally {
+            lock.release();
+        }
+        ResultStore.shared().append(result, durationMs);
+        FailureArtifacts.attach(file, result);
+    }
+
+    public synchronized int total() {
+        return total;
+    }
+
+    public synchronized int passed() {
+        return passed;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (openSinks) {
+            if (--references > 0) {
+                return;
+            }
+            openSinks.remove(file);
+        }
+        synchronized (this) {
+            channel.close();
+        }
+        System.out.println("📄 " + total + " result(s) in " + file + ", summary in " + summaryFile.getFileName());
+    }
+
+    // Appends at the current end of file; caller holds the file lock
+    private void write(String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        if (buffer.capacity() < bytes.length) {
+            buffer = ByteBuffer.allocateDirect(Math.max(bytes.length, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.put(bytes);
+        buffer.flip();
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+    }
+
+    // Rewritten atomically so a crash never leaves a half-written summary behind.
+    // Caller holds the file lock, so processes sharing the run file take turns.
+    private void writeSummary() throws IOException {
+        Path temp = summaryFile.resolveSibling(summaryFile.getFileName() + ".tmp");
+        Files.writeString(temp, TestReport.summary(total, passed).stripLeading(), StandardCharsets.UTF_8);
+        Files.move(temp, summaryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Counts the rows appended since the last count, by this or any other process.
+    // Rows are parsed as CSV records, so quoted multi-line error messages count once.
+    // Caller holds the file lock.
+    private void countNewRows() throws IOException {
+        long size = channel.size();
+        if (size <= counted) {
+            return;
+        }
+        ByteBuffer region = ByteBuffer.allocate((int) (size - counted));
+        while (region.hasRemaining() && channel.read(region, counted + region.position()) > 0) {
+            // Positional reads leave the append position alone
+        }
+        boolean fromStart = counted == 0;
+        counted += region.position();
+
+        try (BufferedReader reader = new BufferedReader(new StringReader(
+                new String(region.array(), 0, region.position(), StandardCharsets.UTF_8)))) {
+            if (fromStart) {
+                TestCaseSource.readCsvRecord(reader);
+            }
+            List<String> fields;
+            while ((fields = TestCaseSource.readCsvRecord(reader)) != null) {
+                if (fields.size() < 6) {
+                    continue;
+                }
+                total++;
+                if ("PASS".equals(fields.get(5))) {
+                    passed++;
+                }
+            }
+        }
+    }
+}
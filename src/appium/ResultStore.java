@@ -0,0 +1,550 @@
+package appium;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Embedded, file-backed history of every TestResult row and named step
+// duration. Rows are buffered and flushed as immutable segment files under
+// reports/results-store, one file per flush, so concurrent runs never write
+// to the same file. Segments are columnar: run ids are run-length encoded,
+// strings are dictionary coded per segment, timestamps are delta-coded
+// varints. load() reads the columns into primitive arrays and builds a
+// per-test-case and per-step index ordered by time, so a history query only
+// touches the rows of the key it asks about.
+//
+// Usage:
+//   ResultStore import <report.csv | directory>...
+//   ResultStore pass-rate <testCaseId> [--last 500]
+//   ResultStore latency <step | testCaseId> [--percentile 95]
+//   ResultStore stats
+public class ResultStore {
+    private static final Path DEFAULT_DIR = Paths.get(System.getProperty("results.store", "reports/results-store"));
+    private static final int MAGIC = 0x45435A52; // "ECZR"
+    private static final int VERSION = 1;
+    private static final int FLUSH_ROWS = 8192;
+    private static final byte RESULTS = 'R';
+    private static final byte STEPS = 'S';
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // Every row written by this JVM belongs to one run
+    private static final String RUN_ID = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+        + "-" + ProcessHandle.current().pid();
+
+    private static ResultStore shared;
+
+    private final Path dir;
+    private final List<Object[]> pendingResults = new ArrayList<>();
+    private final List<Object[]> pendingSteps = new ArrayList<>();
+
+    private ResultStore(Path dir) {
+        this.dir = dir;
+    }
+
+    // Writer for this JVM; buffered rows are flushed at exit
+    public static synchronized ResultStore shared() {
+        if (shared == null) {
+            shared = new ResultStore(DEFAULT_DIR);
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::flushQuietly, "result-store-flush"));
+        }
+        return shared;
+    }
+
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    // durationMs < 0 when the caller did not time the test case
+    public void append(TestResult result, long durationMs) {
+        append(RUN_ID, result, durationMs);
+    }
+
+    public synchronized void append(String runId, TestResult result, long durationMs) {
+        pendingResults.add(new Object[] {runId, result.testCaseId(), result.passed(), epochSecond(result.timestamp()),
+            durationMs, result.errorMessage() == null ? "" : result.errorMessage()});
+        if (pendingResults.size() >= FLUSH_ROWS) {
+            flushQuietly();
+        }
+    }
+
+    public synchronized void appendStep(String name, long nanos) {
+        pendingSteps.add(new Object[] {RUN_ID, name, System.currentTimeMillis() / 1000, nanos / 1000});
+        if (pendingSteps.size() >= FLUSH_ROWS) {
+            flushQuietly();
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        if (!pendingResults.isEmpty()) {
+            writeSegment(RESULTS, pendingResults);
+            pendingResults.clear();
+        }
+        if (!pendingSteps.isEmpty()) {
+            writeSegment(STEPS, pendingSteps);
+            pendingSteps.clear();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write result store segment: " + e.getMessage());
+        }
+    }
+
+    // Column order: results = run, test case, passed, epoch second, duration ms, error
+    //               steps   = run, step name, epoch second, duration us
+    private void writeSegment(byte table, List<Object[]> rows) throws IOException {
+        Files.createDirectories(dir);
+        String name = String.format(Locale.ROOT, "%c-%d-%08x.seg", (char) table, System.currentTimeMillis(),
+            ThreadLocalRandom.current().nextInt());
+        Path temp = dir.resolve(name + ".tmp");
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        int stringColumns = table == RESULTS ? 3 : 2;
+        int[][] coded = new int[stringColumns][rows.size()];
+        for (int r = 0; r < rows.size(); r++) {
+            Object[] row = rows.get(r);
+            int[] stringFields = table == RESULTS ? new int[] {0, 1, 5} : new int[] {0, 1};
+            for (int c = 0; c < stringColumns; c++) {
+                coded[c][r] = dictionary.computeIfAbsent((String) row[stringFields[c]], word -> {
+                    words.add(word);
+                    return words.size() - 1;
+                });
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(table);
+            writeVarLong(out, rows.size());
+            writeVarLong(out, words.size());
+            for (String word : words) {
+                writeString(out, word);
+            }
+
+            // Run ids as (id, repeat) pairs: a segment usually holds one or two runs
+            int r = 0;
+            while (r < rows.size()) {
+                int end = r;
+                while (end < rows.size() && coded[0][end] == coded[0][r]) {
+                    end++;
+                }
+                writeVarLong(out, coded[0][r]);
+                writeVarLong(out, end - r);
+                r = end;
+            }
+            for (int id : coded[1]) {
+                writeVarLong(out, id);
+            }
+
+            long previousEpoch = 0;
+            if (table == RESULTS) {
+                for (Object[] row : rows) {
+                    out.writeByte((Boolean) row[2] ? 1 : 0);
+                }
+            }
+            int epochField = table == RESULTS ? 3 : 2;
+            for (Object[] row : rows) {
+                long epoch = (Long) row[epochField];
+                writeVarLong(out, zigZag(epoch - previousEpoch));
+                previousEpoch = epoch;
+            }
+            int durationField = table == RESULTS ? 4 : 3;
+            for (Object[] row : rows) {
+                writeVarLong(out, Math.max(-1, (Long) row[durationField]) + 1);
+            }
+            if (table == RESULTS) {
+                for (int id : coded[2]) {
+                    writeVarLong(out, id);
+                }
+            }
+        }
+        Files.move(temp, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---- Query side -------------------------------------------------------
+
+    public record PassRate(String testCaseId, int runs, int passed) {
+        public double rate() {
+            return runs == 0 ? 0 : passed * 100.0 / runs;
+        }
+    }
+
+    public record DayLatency(LocalDate day, long count, double p50Ms, double percentileMs) {
+    }
+
+    // Columns of one table held as primitive arrays, plus a time-ordered row index per key
+    private static class Table {
+        int size;
+        int[] run = new int[1024];
+        int[] key = new int[1024];
+        long[] epoch = new long[1024];
+        long[] duration = new long[1024];
+        byte[] passed;
+        int[] error;
+        Map<Integer, int[]> index;
+
+        Table(boolean results) {
+            if (results) {
+                passed = new byte[1024];
+                error = new int[1024];
+            }
+        }
+
+        void ensure(int extra) {
+            if (size + extra <= run.length) {
+                return;
+            }
+            int capacity = Math.max(size + extra, run.length * 2);
+            run = Arrays.copyOf(run, capacity);
+            key = Arrays.copyOf(key, capacity);
+            epoch = Arrays.copyOf(epoch, capacity);
+            duration = Arrays.copyOf(duration, capacity);
+            if (passed != null) {
+                passed = Arrays.copyOf(passed, capacity);
+                error = Arrays.copyOf(error, capacity);
+            }
+        }
+
+        void buildIndex() {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (int r = 0; r < size; r++) {
+                counts.merge(key[r], 1, Integer::sum);
+            }
+            index = new HashMap<>();
+            Map<Integer, Integer> fill = new HashMap<>();
+            for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+                index.put(entry.getKey(), new int[entry.getValue()]);
+                fill.put(entry.getKey(), 0);
+            }
+            for (int r = 0; r < size; r++) {
+                int position = fill.merge(key[r], 1, Integer::sum) - 1;
+                index.get(key[r])[position] = r;
+            }
+            for (int[] rows : index.values()) {
+                sortByEpoch(rows);
+            }
+        }
+
+        // Segments are read in file order, so rows are usually already sorted
+        private void sortByEpoch(int[] rows) {
+            for (int i = 1; i < rows.length; i++) {
+                if (epoch[rows[i]] < epoch[rows[i - 1]]) {
+                    Integer[] boxed = Arrays.stream(rows).boxed().toArray(Integer[]::new);
+                    Arrays.sort(boxed, (a, b) -> Long.compare(epoch[a], epoch[b]));
+                    for (int j = 0; j < rows.length; j++) {
+                        rows[j] = boxed[j];
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    public static class Query {
+        private final List<String> words = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Table results = new Table(true);
+        private final Table steps = new Table(false);
+        private int segments;
+
+        private int id(String word) {
+            return ids.computeIfAbsent(word, w -> {
+                words.add(w);
+                return words.size() - 1;
+            });
+        }
+
+        public int rows() {
+            return results.size;
+        }
+
+        public int stepRows() {
+            return steps.size;
+        }
+
+        public int segments() {
+            return segments;
+        }
+
+        // Pass rate of the test case over its most recent lastN recorded runs
+        public PassRate passRate(String testCaseId, int lastN) {
+            Integer id = ids.get(testCaseId);
+            int[] rows = id == null ? null : results.index.get(id);
+            if (rows == null) {
+                return new PassRate(testCaseId, 0, 0);
+            }
+            int from = Math.max(0, rows.length - lastN);
+            int passed = 0;
+            for (int i = from; i < rows.length; i++) {
+                passed += results.passed[rows[i]];
+            }
+            return new PassRate(testCaseId, rows.length - from, passed);
+        }
+
+        // Per-day latency of a step (StepMetrics name) or, failing that, of a test case's timed runs
+        public List<DayLatency> latencyPerDay(String name, double percentile) {
+            Integer id = ids.get(name);
+            Table table = id != null && steps.index.containsKey(id) ? steps : results;
+            int[] rows = id == null ? null : table.index.get(id);
+            List<DayLatency> days = new ArrayList<>();
+            if (rows == null) {
+                return days;
+            }
+            // Results store milliseconds, steps microseconds
+            long toMicros = table == results ? 1000 : 1;
+            Map<LocalDate, LatencyHistogram> histograms = new TreeMap<>();
+            LocalDate currentDay = null;
+            long currentDayEnd = Long.MIN_VALUE;
+            LatencyHistogram current = null;
+            for (int row : rows) {
+                if (table.duration[row] < 0) {
+                    continue;
+                }
+                if (current == null || table.epoch[row] >= currentDayEnd) {
+                    currentDay = Instant.ofEpochSecond(table.epoch[row]).atZone(ZONE).toLocalDate();
+                    currentDayEnd = currentDay.plusDays(1).atStartOfDay(ZONE).toEpochSecond();
+                    current = histograms.computeIfAbsent(currentDay, day -> new LatencyHistogram());
+                }
+                current.recordMicros(table.duration[row] * toMicros);
+            }
+            for (Map.Entry<LocalDate, LatencyHistogram> entry : histograms.entrySet()) {
+                LatencyHistogram h = entry.getValue();
+                days.add(new DayLatency(entry.getKey(), h.count(), h.percentileMicros(50) / 1000.0,
+                    h.percentileMicros(percentile) / 1000.0));
+            }
+            return days;
+        }
+
+        private void read(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+                if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                    throw new IOException("❌ Not a result store segment: " + file);
+                }
+                byte kind = in.readByte();
+                Table table = kind == RESULTS ? results : steps;
+                int rows = (int) readVarLong(in);
+                int[] local = new int[(int) readVarLong(in)];
+                for (int i = 0; i < local.length; i++) {
+                    local[i] = id(readString(in));
+                }
+
+                table.ensure(rows);
+                int base = table.size;
+                int filled = 0;
+                while (filled < rows) {
+                    int run = local[(int) readVarLong(in)];
+                    int repeat = (int) readVarLong(in);
+                    Arrays.fill(table.run, base + filled, base + filled + repeat, run);
+                    filled += repeat;
+                }
+                for (int r = 0; r < rows; r++) {
+                    table.key[base + r] = local[(int) readVarLong(in)];
+                }
+                if (kind == RESULTS) {
+                    for (int r = 0; r < rows; r++) {
+                        table.passed[base + r] = in.readByte();
+                    }
+                }
+                long epoch = 0;
+                for (int r = 0; r < rows; r++) {
+                    epoch += unZigZag(readVarLong(in));
+                    table.epoch[base + r] = epoch;
+                }
+                for (int r = 0; r < rows; r++) {
+                    table.duration[base + r] = readVarLong(in) - 1;
+                }
+                if (kind == RESULTS) {
+                    for (int r = 0; r < rows; r++) {
+                        table.error[base + r] = local[(int) readVarLong(in)];
+                    }
+                }
+                table.size += rows;
+                segments++;
+            }
+        }
+    }
+
+    public static Query load() throws IOException {
+        return load(DEFAULT_DIR);
+    }
+
+    public static Query load(Path dir) throws IOException {
+        Query query = new Query();
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".seg")).sorted()::iterator) {
+                    query.read(file);
+                }
+            }
+        }
+        query.results.buildIndex();
+        query.steps.buildIndex();
+        return query;
+    }
+
+    // Imports historical report CSVs; each file becomes one run
+    public long importReports(Path path) throws IOException {
+        long imported = 0;
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> walk = Files.walk(path)) {
+                walk.filter(f -> f.toString().endsWith(".csv")).forEach(files::add);
+            }
+        } else {
+            files.add(path);
+        }
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                List<String> header = TestCaseSource.readCsvRecord(reader);
+                if (header == null || !String.join(",", header).replace("\uFEFF", "").equals(TestReport.HEADER)) {
+                    continue;
+                }
+                String runId = file.getFileName().toString().replaceFirst("\\.csv$", "");
+                List<String> fields;
+                while ((fields = TestCaseSource.readCsvRecord(reader)) != null) {
+                    if (fields.get(0).startsWith("===")) {
+                        break;
+                    }
+                    if (fields.size() < 8) {
+                        continue;
+                    }
+                    append(runId, new TestResult(fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                        fields.get(4), fields.get(5), fields.get(6), fields.get(7)), -1);
+                    imported++;
+                }
+            }
+        }
+        flush();
+        return imported;
+    }
+
+    private static long epochSecond(String timestamp) {
+        try {
+            return LocalDateTime.parse(timestamp, TestResult.TIMESTAMP_FORMAT).atZone(ZONE).toEpochSecond();
+        } catch (DateTimeParseException | NullPointerException e) {
+            return System.currentTimeMillis() / 1000;
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("❌ Malformed varint in result store segment");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: ResultStore import <path>... | pass-rate <testCaseId> [--last N] | latency <name> [--percentile P] | stats");
+            return;
+        }
+        switch (args[0]) {
+            case "import" -> {
+                ResultStore store = new ResultStore(DEFAULT_DIR);
+                for (int i = 1; i < args.length; i++) {
+                    System.out.println("📥 Imported " + store.importReports(Paths.get(args[i])) + " row(s) from " + args[i]);
+                }
+            }
+            case "pass-rate" -> {
+                int last = args.length > 3 && args[2].equals("--last") ? Integer.parseInt(args[3]) : 500;
+                long start = System.nanoTime();
+                Query query = load();
+                long loaded = System.nanoTime();
+                PassRate rate = query.passRate(args[1], last);
+                long answered = System.nanoTime();
+                System.out.printf(Locale.ROOT, "%s: %d/%d passed over the last %d run(s) = %.2f%%%n",
+                    rate.testCaseId(), rate.passed(), rate.runs(), rate.runs(), rate.rate());
+                printTiming(query, loaded - start, answered - loaded);
+            }
+            case "latency" -> {
+                double percentile = args.length > 3 && args[2].equals("--percentile") ? Double.parseDouble(args[3]) : 95;
+                long start = System.nanoTime();
+                Query query = load();
+                long loaded = System.nanoTime();
+                List<DayLatency> days = query.latencyPerDay(args[1], percentile);
+                long answered = System.nanoTime();
+                System.out.printf(Locale.ROOT, "%-12s %8s %10s %10s%n", "Day", "Count", "p50 (ms)", "p" + (int) percentile + " (ms)");
+                for (DayLatency day : days) {
+                    System.out.printf(Locale.ROOT, "%-12s %8d %10.1f %10.1f%n", day.day(), day.count(), day.p50Ms(), day.percentileMs());
+                }
+                printTiming(query, loaded - start, answered - loaded);
+            }
+            case "stats" -> {
+                Query query = load();
+                System.out.println("📊 " + query.segments() + " segment(s), " + query.rows() + " result row(s), "
+                    + query.stepRows() + " step row(s), heap used "
+                    + ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024) + " MB");
+            }
+            default -> throw new IllegalArgumentException("❌ Unknown command " + args[0]);
+        }
+    }
+
+    private static void printTiming(Query query, long loadNanos, long queryNanos) {
+        System.out.printf(Locale.ROOT, "⏱️ Loaded %d result + %d step row(s) from %d segment(s) in %.1f ms, query took %.3f ms%n",
+            query.rows(), query.stepRows(), query.segments(), loadNanos / 1e6, queryNanos / 1e6);
+    }
+}
@@ -0,0 +1,37 @@
+package appium;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+// Shared safe-click / safe-input helpers: report failure instead of throwing
+public class SafeActions {
+
+    // Utility method for safe element interaction
+    public static boolean safeClick(WebDriverWait wait, By locator, String elementName) {
+        try {
+            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
+            element.click();
+            System.out.println("✅ Successfully clicked " + elementName);
+            return true;
+        } catch (Exception e) {
+            System.out.println("⚠️ Failed to click " + elementName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Utility method for safe text input
+    public static boolean safeInput(WebDriverWait wait, By locator, String value, String fieldName) {
+        try {
+            WebElement element = wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            element.clear();
+            element.sendKeys(value);
+            System.out.println("✅ Successfully entered " + fieldName);
+            return true;
+        } catch (Exception e) {
+            System.out.println("⚠️ Failed to enter " + fieldName + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
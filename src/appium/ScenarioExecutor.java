@@ -0,0 +1,195 @@
+package appium;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs scenarios as virtual-thread tasks. Every scenario gets its own timeout
+// (the worker is interrupted, which also aborts a WebDriver call blocked on
+// its socket), cancelAll() stops everything still queued or running, and
+// close() waits for every task, so no scenario outlives the executor's scope.
+// An optional limit bounds how many scenarios run at once (e.g. browsers).
+//
+// Usage:
+//   ScenarioExecutor --mock 250 [--timeout 120] [--latency 20]
+public class ScenarioExecutor implements AutoCloseable {
+    public interface ScenarioTask {
+        void run() throws Exception;
+    }
+
+    public record Scenario(String name, Duration timeout, ScenarioTask task) {
+    }
+
+    public enum Status { PASSED, FAILED, TIMED_OUT, CANCELLED }
+
+    public record Outcome(String name, Status status, long durationMs, String error) {
+        public boolean passed() {
+            return status == Status.PASSED;
+        }
+    }
+
+    private static final ScheduledExecutorService timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scenario-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    // maxInFlight <= 0 means unbounded
+    public ScenarioExecutor(int maxInFlight) {
+        this.slots = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+    }
+
+    public CompletableFuture<Outcome> submit(Scenario scenario) {
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        threads.execute(() -> run(scenario, result));
+        return result;
+    }
+
+    // Submits every scenario and waits; outcomes are returned in submission order
+    public List<Outcome> runAll(List<Scenario> scenarios) throws InterruptedException {
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            futures.add(submit(scenario));
+        }
+        List<Outcome> outcomes = new ArrayList<>();
+        for (CompletableFuture<Outcome> future : futures) {
+            try {
+                outcomes.add(future.get());
+            } catch (ExecutionException e) {
+                // run() always completes the future with an outcome
+                throw new IllegalStateException("Scenario executor bug", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    public void cancelAll() {
+        cancelled.set(true);
+        for (Thread thread : running) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        threads.close();
+    }
+
+    private void run(Scenario scenario, CompletableFuture<Outcome> result) {
+        long start = System.currentTimeMillis();
+        boolean acquired = false;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> timer = null;
+        Thread worker = Thread.currentThread();
+
+        try {
+            if (slots != null) {
+                slots.acquire();
+                acquired = true;
+            }
+            if (cancelled.get()) {
+                result.complete(new Outcome(scenario.name(), Status.CANCELLED, 0, "Cancelled before start"));
+                return;
+            }
+
+            start = System.currentTimeMillis();
+            running.add(worker);
+            timer = timeouts.schedule(() -> {
+                timedOut.set(true);
+                worker.interrupt();
+            }, scenario.timeout().toMillis(), TimeUnit.MILLISECONDS);
+
+            scenario.task().run();
+            result.complete(new Outcome(scenario.name(), Status.PASSED, System.currentTimeMillis() - start, ""));
+        } catch (Throwable e) {
+            long duration = System.currentTimeMillis() - start;
+            Status status = timedOut.get() ? Status.TIMED_OUT : cancelled.get() ? Status.CANCELLED : Status.FAILED;
+            String error = status == Status.TIMED_OUT ? "Timed out after " + scenario.timeout().toSeconds() + " s"
+                : String.valueOf(e.getMessage());
+            result.complete(new Outcome(scenario.name(), status, duration, error));
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            running.remove(worker);
+            // Do not leak a timeout interrupt into the next task on this thread
+            Thread.interrupted();
+            if (acquired) {
+                slots.release();
+            }
+        }
+    }
+
+    public static void printSummary(List<Outcome> outcomes, long elapsedMs) {
+        long passed = outcomes.stream().filter(Outcome::passed).count();
+        long busyMs = outcomes.stream().mapToLong(Outcome::durationMs).sum();
+        System.out.println("\n=== SCENARIO EXECUTOR SUMMARY ===");
+        for (Status status : Status.values()) {
+            long count = outcomes.stream().filter(o -> o.status() == status).count();
+            if (count > 0) {
+                System.out.println(status + ": " + count);
+            }
+        }
+        outcomes.stream().filter(o -> !o.passed()).limit(10)
+            .forEach(o -> System.out.println("  ❌ " + o.name() + " [" + o.status() + "] " + o.error()));
+        System.out.println("Passed: " + passed + "/" + outcomes.size());
+        System.out.printf(Locale.ROOT, "Wall clock: %d ms, scenario time: %d ms, concurrency: %.1fx%n",
+            elapsedMs, busyMs, elapsedMs == 0 ? 0 : (double) busyMs / elapsedMs);
+        System.out.println("Peak platform threads: " + ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+
+    // Login, navigation, logout and registration scenarios on simulated devices
+    public static void main(String[] args) throws Exception {
+        int rounds = 50;
+        Duration timeout = Duration.ofSeconds(120);
+        long latency = 20;
+        for (int i = 0; i < args.length - 1; i++) {
+            switch (args[i]) {
+                case "--mock" -> rounds = Integer.parseInt(args[++i]);
+                case "--timeout" -> timeout = Duration.ofSeconds(Long.parseLong(args[++i]));
+                case "--latency" -> latency = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("❌ Unknown option " + args[i]);
+            }
+        }
+
+        try (MockAppiumServer mock = new MockAppiumServer(0, latency)) {
+            List<Scenario> scenarios = new ArrayList<>();
+            for (int i = 1; i <= rounds; i++) {
+                Device login = Device.simulated("vt-login-" + i, 0, mock.url());
+                Device navigation = Device.simulated("vt-nav-" + i, 0, mock.url());
+                Device logout = Device.simulated("vt-logout-" + i, 0, mock.url());
+                Device registration = Device.simulated("vt-reg-" + i, 0, mock.url());
+                scenarios.add(new Scenario("Login #" + i, timeout, () -> EcozymAllFitur.runLoginOn(login)));
+                scenarios.add(new Scenario("Navigation #" + i, timeout, () -> EcozymAllFitur.runNavigationOn(navigation)));
+                scenarios.add(new Scenario("Logout #" + i, timeout, () -> EcozymAllFitur.runLogoutOn(logout)));
+                scenarios.add(new Scenario("Registration #" + i, timeout, () -> EcozymAppiumTest.runRegistrationOn(registration)));
+            }
+
+            long start = System.currentTimeMillis();
+            List<Outcome> outcomes;
+            try (ScenarioExecutor executor = new ScenarioExecutor(0)) {
+                outcomes = executor.runAll(scenarios);
+            }
+            printSummary(outcomes, System.currentTimeMillis() - start);
+            SessionPool.shared().shutdown();
+        }
+    }
+}
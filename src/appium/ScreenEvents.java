@@ -0,0 +1,300 @@
+package appium;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import io.appium.java_client.AppiumDriver;
+
+// Change notifications that wake a WebDriverWait when the screen changes
+// instead of on its next fixed 500 ms poll. Android: one "adb logcat" stream
+// per real device of activity resume/pause, window focus and launch events.
+// Browsers: a MutationObserver in the page, waited on through
+// executeAsyncScript. Events only shorten the sleep: waits from waitFor()
+// still re-check their condition every -Dscreen.events.fallbackMs (500, never
+// more) when nothing is heard, since not every screen change (a fragment
+// swap, a dialog) shows up in the log. Without an event source they keep the
+// plain 500 ms poll. -Dscreen.events=false turns the layer off.
+public class ScreenEvents {
+    private static final boolean ENABLED = !"false".equals(System.getProperty("screen.events"));
+    private static final long DEFAULT_POLL_MS = 500;
+    private static final long FALLBACK_POLL_MS = Math.max(1, Math.min(DEFAULT_POLL_MS,
+        Long.getLong("screen.events.fallbackMs", DEFAULT_POLL_MS)));
+    // Mutations are batched this long so an animating page wakes the wait a few times, not per frame
+    private static final long DOM_DEBOUNCE_MS = 100;
+
+    // Event-log tags and log tags that mark an activity or window transition
+    private static final List<String> LOGCAT_FILTER = List.of(
+        "wm_on_resume_called:I", "wm_on_paused_called:I", "am_on_resume_called:I", "am_on_paused_called:I",
+        "input_focus:I", "wm_activity_launch_time:I", "am_activity_launch_time:I", "ActivityTaskManager:I", "*:S");
+
+    // Resolves with "<document id>:<mutation count>" once the count differs from
+    // arguments[0], or after arguments[1] ms. A new document gets a new id.
+    private static final String AWAIT_MUTATION =
+        "var seen = arguments[0], timeout = arguments[1], debounce = arguments[2], done = arguments[arguments.length - 1];"
+        + "var s = window.__screenEvents;"
+        + "if (!s) {"
+        + "  s = window.__screenEvents = {id: Math.random().toString(36).slice(2), n: 0, waiters: []};"
+        + "  new MutationObserver(function () {"
+        + "    s.n++; var w = s.waiters; s.waiters = []; w.forEach(function (f) { f(); });"
+        + "  }).observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+        + "}"
+        + "var token = function () { return s.id + ':' + s.n; };"
+        + "if (seen !== '' && token() !== seen) { done(token()); return; }"
+        + "var finished = false, finish = function () { if (!finished) { finished = true; done(token()); } };"
+        + "var timer = setTimeout(finish, timeout);"
+        + "s.waiters.push(function () { clearTimeout(timer); setTimeout(finish, debounce); });";
+
+    // Resolves true once the document is complete and no mutation happened for
+    // arguments[0] ms, or false when arguments[1] ms pass first
+    private static final String AWAIT_QUIET =
+        "var quiet = arguments[0], limit = arguments[1], done = arguments[arguments.length - 1];"
+        + "var finished = false, idle = null;"
+        + "var finish = function (ok) { if (!finished) { finished = true; clearTimeout(idle); observer.disconnect(); done(ok); } };"
+        + "var observer = new MutationObserver(function () { if (document.readyState === 'complete') { arm(); } });"
+        + "var arm = function () { clearTimeout(idle); idle = setTimeout(function () { finish(true); }, quiet); };"
+        + "observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+        + "setTimeout(function () { finish(false); }, limit);"
+        + "if (document.readyState === 'complete') { arm(); }"
+        + "else { document.addEventListener('readystatechange', function () { if (document.readyState === 'complete') { arm(); } }); }";
+
+    // One screen-change counter per source, waited on by every wait that listens to it
+    private static final class Channel {
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private long version = 0;
+        private volatile boolean live = true;
+
+        Channel(String name) {
+            this.name = name;
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                version++;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long version() {
+            lock.lock();
+            try {
+                return version;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Current version, as soon as it moves past seen or once timeoutMs has passed
+        long await(long seen, long timeoutMs) throws InterruptedException {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            lock.lock();
+            try {
+                while (version == seen && remaining > 0 && live) {
+                    remaining = changed.awaitNanos(remaining);
+                }
+                return version;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            live = false;
+            signal();
+        }
+    }
+
+    // Sleeper for a device's logcat channel; remembers the last version its wait has seen
+    private static final class ChannelSleeper implements Sleeper {
+        private final Channel channel;
+        private long seen;
+
+        ChannelSleeper(Channel channel) {
+            this.channel = channel;
+            this.seen = channel.version();
+        }
+
+        @Override
+        public void sleep(Duration duration) throws InterruptedException {
+            if (!channel.live) {
+                // Stream ended: back to the plain poll interval
+                Thread.sleep(Math.min(duration.toMillis(), DEFAULT_POLL_MS));
+                timeoutWakes.incrementAndGet();
+                return;
+            }
+            long version = channel.await(seen, duration.toMillis());
+            (version != seen ? eventWakes : timeoutWakes).incrementAndGet();
+            seen = version;
+        }
+    }
+
+    // Sleeper that waits inside the page for the next DOM mutation
+    private static final class DomSleeper implements Sleeper {
+        private final JavascriptExecutor js;
+        private String seen = "";
+
+        DomSleeper(JavascriptExecutor js) {
+            this.js = js;
+        }
+
+        @Override
+        public void sleep(Duration duration) throws InterruptedException {
+            long start = System.currentTimeMillis();
+            try {
+                String token = String.valueOf(js.executeAsyncScript(AWAIT_MUTATION, seen, duration.toMillis(), DOM_DEBOUNCE_MS));
+                (System.currentTimeMillis() - start < duration.toMillis() ? eventWakes : timeoutWakes).incrementAndGet();
+                seen = token;
+            } catch (WebDriverException e) {
+                if (String.valueOf(e.getMessage()).contains("unloaded")) {
+                    // The page navigated away while we waited, which is a change too
+                    eventWakes.incrementAndGet();
+                    return;
+                }
+                // No script support here: sleep out the rest of the plain poll interval
+                long remaining = Math.min(duration.toMillis(), DEFAULT_POLL_MS) - (System.currentTimeMillis() - start);
+                if (remaining > 0) {
+                    Thread.sleep(remaining);
+                }
+                timeoutWakes.incrementAndGet();
+            }
+        }
+    }
+
+    // udid -> logcat channel, and which channel each Appium session listens to
+    private static final Map<String, Channel> devices = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, Channel> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final List<Process> streams = Collections.synchronizedList(new ArrayList<>());
+
+    private static volatile boolean closing = false;
+    private static final AtomicLong eventWakes = new AtomicLong();
+    private static final AtomicLong timeoutWakes = new AtomicLong();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenEvents::shutdown, "screen-events-shutdown"));
+    }
+
+    // Ties an Appium session to its device's logcat stream, starting the stream on first use.
+    // Simulated devices have no logcat; their waits keep the plain poll.
+    public static void watch(WebDriver driver, Device device) {
+        if (!ENABLED || device.simulated()) {
+            return;
+        }
+        Channel channel = devices.get(device.udid());
+        if (channel == null || !channel.live) {
+            Channel created = new Channel(device.udid());
+            boolean started = channel == null ? devices.putIfAbsent(device.udid(), created) == null
+                : devices.replace(device.udid(), channel, created);
+            if (started) {
+                Thread.ofPlatform().daemon().name("logcat-" + device.udid()).start(() -> stream(created));
+            }
+            channel = devices.get(device.udid());
+        }
+        sessions.put(driver, channel);
+    }
+
+    // WebDriverWait that wakes on screen events from this driver's source, if it has one
+    public static WebDriverWait waitFor(WebDriver driver, long timeoutSeconds) {
+        Sleeper sleeper = sleeperFor(driver);
+        long pollMs = sleeper == Sleeper.SYSTEM_SLEEPER ? DEFAULT_POLL_MS : FALLBACK_POLL_MS;
+        return new WebDriverWait(driver, Clock.systemDefaultZone(), sleeper, timeoutSeconds, pollMs);
+    }
+
+    // Browser pages only: waits for document complete plus quietMs without DOM
+    // mutations, in one round trip. Returns false when this driver cannot run it.
+    public static boolean awaitQuiet(WebDriver driver, long quietMs, long deadline) {
+        if (!ENABLED || driver instanceof AppiumDriver || !(driver instanceof JavascriptExecutor js)) {
+            return false;
+        }
+        long limit = deadline - System.currentTimeMillis();
+        if (limit <= 0) {
+            return true;
+        }
+        try {
+            js.executeAsyncScript(AWAIT_QUIET, quietMs, limit);
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static Sleeper sleeperFor(WebDriver driver) {
+        if (!ENABLED) {
+            return Sleeper.SYSTEM_SLEEPER;
+        }
+        if (driver instanceof AppiumDriver) {
+            Channel channel = sessions.get(driver);
+            return channel != null && channel.live ? new ChannelSleeper(channel) : Sleeper.SYSTEM_SLEEPER;
+        }
+        if (driver instanceof JavascriptExecutor js) {
+            return new DomSleeper(js);
+        }
+        return Sleeper.SYSTEM_SLEEPER;
+    }
+
+    // Follows the device log from now on; every transition line bumps the channel
+    private static void stream(Channel channel) {
+        List<String> command = new ArrayList<>(List.of(ApkInstaller.adbPath(), "-s", channel.name,
+            "logcat", "-b", "events", "-b", "main", "-v", "brief", "-T", "1"));
+        command.addAll(LOGCAT_FILTER);
+        Process process = null;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            streams.add(process);
+            System.out.println("📡 Listening to screen events on " + channel.name);
+            try (BufferedReader reader = process.inputReader(StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("---------")) {
+                        channel.signal();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Cannot read logcat on " + channel.name + ": " + e.getMessage());
+        } finally {
+            channel.close();
+            if (process != null) {
+                process.destroy();
+                streams.remove(process);
+            }
+            if (!closing) {
+                System.out.println("⚠️ Screen events on " + channel.name + " stopped, its waits poll every " + DEFAULT_POLL_MS + " ms");
+            }
+        }
+    }
+
+    private static void shutdown() {
+        closing = true;
+        synchronized (streams) {
+            streams.forEach(Process::destroy);
+        }
+        long events = eventWakes.get();
+        long timeouts = timeoutWakes.get();
+        if (events + timeouts > 0) {
+            System.out.println("📡 Waits woke on a screen event " + events + " time(s), on the fallback poll " + timeouts + " time(s)");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package appium;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.TouchAction;
+import io.appium.java_client.touch.offset.PointOption;
+
+// Tap points computed from element bounds instead of hardcoded pixels. The
+// first lookup on a screen parses one page-source snapshot; the resolved
+// bounds are cached per device profile (udid + screen size) and screen, and
+// persisted so later runs tap on the first try without any page source at all.
+public class ScreenGeometry {
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("geometry.cache", ".screen-geometry.properties"));
+    private static final Properties bounds = loadCache();
+
+    // One parsed snapshot per profile|screen, dropped on invalidate() or by the cache's retention policy
+    private static final ScreenSnapshot.Cache snapshots = new ScreenSnapshot.Cache("geometry");
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(snapshots::printStats, "geometry-stats"));
+    }
+
+    private static final Map<String, String> profiles = new ConcurrentHashMap<>();
+
+    // Element whose class matches (null = any) and whose id/hint/text/content-desc mentions one of the words
+    public static Predicate<ScreenSnapshot.UiNode> mentioning(String className, String... words) {
+        return node -> {
+            if (className != null && !className.equals(node.className())) {
+                return false;
+            }
+            String haystack = (node.resourceId() + " " + node.hint() + " " + node.text() + " " + node.contentDesc())
+                .toLowerCase(Locale.ROOT);
+            for (String word : words) {
+                if (haystack.contains(word.toLowerCase(Locale.ROOT))) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    // Center of the element on the current device, or null when the screen has no such element
+    public static Point tapPoint(RemoteWebDriver driver, String screen, String element,
+                                 Predicate<ScreenSnapshot.UiNode> matcher) {
+        String screenKey = profile(driver) + "|" + screen;
+        String elementKey = screenKey + "|" + element;
+
+        String cached;
+        synchronized (bounds) {
+            cached = bounds.getProperty(elementKey);
+        }
+        if (cached != null) {
+            String[] parts = cached.split(",");
+            ScreenSnapshot.Bounds box = new ScreenSnapshot.Bounds(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            return new Point(box.centerX(), box.centerY());
+        }
+
+        // Captured outside the map: computeIfAbsent would hold a bin lock across the
+        // HTTP call and pin a virtual thread (see ScenarioExecutor)
+        ScreenSnapshot snapshot = snapshots.get(screenKey);
+        if (snapshot == null) {
+            snapshot = snapshots.putIfAbsent(screenKey, ScreenSnapshot.capture(driver));
+        }
+        ScreenSnapshot.UiNode node = snapshot.first(candidate -> candidate.bounds() != null && matcher.test(candidate));
+        if (node == null) {
+            return null;
+        }
+        ScreenSnapshot.Bounds box = node.bounds();
+        remember(elementKey, box);
+        return new Point(box.centerX(), box.centerY());
+    }
+
+    // Taps the element's center; the legacy point is only used when the element is not in the page source
+    public static Point tap(AppiumDriver<?> driver, String screen, String element,
+                            Predicate<ScreenSnapshot.UiNode> matcher, int legacyX, int legacyY) {
+        Point point = tapPoint(driver, screen, element, matcher);
+        if (point == null) {
+            System.out.println("⚠️ " + element + " not found on " + screen + ", using legacy point (" + legacyX + ", " + legacyY + ")");
+            point = new Point(legacyX, legacyY);
+        } else {
+            System.out.println("📐 " + element + " on " + screen + " at (" + point.getX() + ", " + point.getY() + ")");
+        }
+        new TouchAction<>(driver).tap(PointOption.point(point.getX(), point.getY())).perform();
+        return point;
+    }
+
+    // Call when a tap missed: the screen layout changed, so re-read it next time
+    public static void invalidate(RemoteWebDriver driver, String screen) {
+        String screenKey = profile(driver) + "|" + screen;
+        snapshots.remove(screenKey);
+        synchronized (bounds) {
+            if (bounds.keySet().removeIf(key -> ((String) key).startsWith(screenKey + "|"))) {
+                save();
+            }
+        }
+    }
+
+    // udid plus window size, looked up once per session
+    private static String profile(RemoteWebDriver driver) {
+        String sessionId = String.valueOf(driver.getSessionId());
+        String cached = profiles.get(sessionId);
+        if (cached != null) {
+            return cached;
+        }
+        Object udid = driver.getCapabilities().getCapability("udid");
+        if (udid == null) {
+            udid = driver.getCapabilities().getCapability("appium:udid");
+        }
+        String size;
+        try {
+            Dimension dimension = driver.manage().window().getSize();
+            size = dimension.getWidth() + "x" + dimension.getHeight();
+        } catch (Exception e) {
+            size = "unknown";
+        }
+        String profile = udid + ":" + size;
+        profiles.putIfAbsent(sessionId, profile);
+        return profile;
+    }
+
+    private static void remember(String elementKey, ScreenSnapshot.Bounds box) {
+        synchronized (bounds) {
+            bounds.setProperty(elementKey, box.x() + "," + box.y() + "," + box.width() + "," + box.height());
+            save();
+        }
+    }
+
+    private static void save() {
+        try (OutputStream out = Files.newOutputStream(CACHE_FILE)) {
+            bounds.store(out, "Element bounds per device profile|screen|element");
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write geometry cache " + CACHE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static Properties loadCache() {
+        Properties properties = new Properties();
+        if (Files.exists(CACHE_FILE)) {
+            try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot read geometry cache " + CACHE_FILE + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,530 @@
+package appium;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openqa.selenium.WebDriver;
+
+// In-memory UI tree built from a single getPageSource() call. Lookups by
+// resource-id, class, text and hint are answered locally, so a debug dump or
+// an element scan costs one round trip instead of one per element attribute.
+//
+// The page source is streamed through StAX and dropped once parsed; nodes are
+// kept column-wise in primitive arrays (string-table ids, flag bits, bounds,
+// parent index) and UiNode records are only created when asked for. Class
+// names and resource ids are interned across snapshots, other strings are
+// shared within one. Snapshots kept for later belong in a Cache, which bounds
+// them by total size and age.
+public class ScreenSnapshot {
+
+    public record Bounds(int x, int y, int width, int height) {
+        public int centerX() {
+            return x + width / 2;
+        }
+
+        public int centerY() {
+            return y + height / 2;
+        }
+    }
+
+    public record UiNode(String className, String resourceId, String text, String hint, String contentDesc,
+                         boolean enabled, boolean displayed, boolean clickable, Bounds bounds) {
+    }
+
+    private static final byte ENABLED = 1;
+    private static final byte DISPLAYED = 2;
+    private static final byte CLICKABLE = 4;
+    private static final byte HAS_BOUNDS = 8;
+    private static final int NONE = -1;
+
+    // Class names and resource ids repeat across every snapshot of an app; free text does not
+    private static final int MAX_INTERNED = 20000;
+    private static final Map<String, String> interned = new ConcurrentHashMap<>();
+
+    private static final XMLInputFactory xmlInputFactory = newXmlInputFactory();
+
+    private final int sourceLength;
+    private final String[] strings;
+    private final int size;
+    private final int[] classIds;
+    private final int[] resourceIds;
+    private final int[] textIds;
+    private final int[] hintIds;
+    private final int[] descIds;
+    private final byte[] flags;
+    private final int[] bounds;
+    private final int[] parents;
+
+    private ScreenSnapshot(int sourceLength, Builder builder) {
+        this.sourceLength = sourceLength;
+        this.strings = builder.strings.toArray(new String[0]);
+        this.size = builder.size;
+        this.classIds = Arrays.copyOf(builder.classIds, size);
+        this.resourceIds = Arrays.copyOf(builder.resourceIds, size);
+        this.textIds = Arrays.copyOf(builder.textIds, size);
+        this.hintIds = Arrays.copyOf(builder.hintIds, size);
+        this.descIds = Arrays.copyOf(builder.descIds, size);
+        this.flags = Arrays.copyOf(builder.flags, size);
+        this.bounds = Arrays.copyOf(builder.bounds, size * 4);
+        this.parents = Arrays.copyOf(builder.parents, size);
+    }
+
+    public static ScreenSnapshot capture(WebDriver driver) {
+        return parse(driver.getPageSource());
+    }
+
+    public static ScreenSnapshot parse(String pageSource) {
+        return parse(new StringReader(pageSource), pageSource.length());
+    }
+
+    // Streams the XML; nothing of it is kept beyond the compact tree
+    public static ScreenSnapshot parse(Reader pageSource, int sourceLength) {
+        Builder builder = new Builder();
+        XMLStreamReader xml = null;
+        try {
+            xml = xmlInputFactory.createXMLStreamReader(pageSource);
+            // Parent node index per open element, so wrapper elements without attributes are skipped
+            int[] open = new int[64];
+            int depth = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    int parent = depth == 0 ? NONE : open[depth - 1];
+                    int index = builder.add(xml, parent);
+                    if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth * 2);
+                    }
+                    open[depth++] = index == NONE ? parent : index;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new RuntimeException("❌ Cannot parse page source: " + e.getMessage(), e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+        return new ScreenSnapshot(sourceLength, builder);
+    }
+
+    public int sourceLength() {
+        return sourceLength;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Read-only view; records are created per access
+    public List<UiNode> nodes() {
+        return new AbstractList<>() {
+            @Override
+            public UiNode get(int index) {
+                return node(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public UiNode node(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Node " + index + " of " + size);
+        }
+        byte f = flags[index];
+        Bounds box = (f & HAS_BOUNDS) == 0 ? null
+            : new Bounds(bounds[index * 4], bounds[index * 4 + 1], bounds[index * 4 + 2], bounds[index * 4 + 3]);
+        return new UiNode(string(classIds[index]), string(resourceIds[index]), string(textIds[index]),
+            string(hintIds[index]), string(descIds[index]),
+            (f & ENABLED) != 0, (f & DISPLAYED) != 0, (f & CLICKABLE) != 0, box);
+    }
+
+    // Index of the enclosing node, -1 for the root
+    public int parent(int index) {
+        return parents[index];
+    }
+
+    public List<UiNode> byResourceId(String resourceId) {
+        return matching(resourceIds, resourceId);
+    }
+
+    public List<UiNode> byClass(String className) {
+        return matching(classIds, className);
+    }
+
+    public List<UiNode> byText(String text) {
+        return matching(textIds, text);
+    }
+
+    public List<UiNode> byHint(String hint) {
+        return matching(hintIds, hint);
+    }
+
+    public UiNode first(Predicate<UiNode> filter) {
+        for (int i = 0; i < size; i++) {
+            UiNode node = node(i);
+            if (filter.test(node)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(String resourceId) {
+        int id = resourceId == null || resourceId.isEmpty() ? NONE : stringId(resourceId);
+        if (id == NONE) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (resourceIds[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Approximate heap held by this snapshot, for Cache budgets
+    public long retainedBytes() {
+        long bytes = 64 + 7L * 16 + (long) size * (6 * 4 + 1 + 4 * 4);
+        for (String value : strings) {
+            bytes += 8 + (interned.get(value) == value ? 0 : 40 + value.length());
+        }
+        return bytes;
+    }
+
+    // Same listing as the runners' original debugCurrentScreen(), from one page source
+    public void printDebug() {
+        System.out.println("\n=== 🔍 DEBUG: Current Screen Elements ===");
+        System.out.println("Current screen contains " + sourceLength + " characters");
+
+        List<UiNode> textViews = byClass("android.widget.TextView");
+        System.out.println("Found " + textViews.size() + " TextViews:");
+        for (int i = 0; i < Math.min(textViews.size(), 10); i++) {
+            UiNode node = textViews.get(i);
+            if (node.text() != null && !node.text().trim().isEmpty()) {
+                System.out.println("  TextView " + i + ": '" + node.text() + "' [ID: " + node.resourceId() + ", Visible: " + node.displayed() + "]");
+            }
+        }
+
+        List<UiNode> editTexts = byClass("android.widget.EditText");
+        System.out.println("\nFound " + editTexts.size() + " EditTexts:");
+        for (int i = 0; i < editTexts.size(); i++) {
+            UiNode node = editTexts.get(i);
+            System.out.println("  EditText " + i + ": hint='" + node.hint() + "', text='" + node.text() + "' [ID: " + node.resourceId() + "]");
+        }
+
+        List<UiNode> buttons = byClass("android.widget.Button");
+        System.out.println("\nFound " + buttons.size() + " Buttons:");
+        for (int i = 0; i < buttons.size(); i++) {
+            UiNode node = buttons.get(i);
+            System.out.println("  Button " + i + ": '" + node.text() + "' [ID: " + node.resourceId() + ", Enabled: " + node.enabled() + ", Visible: " + node.displayed() + "]");
+        }
+
+        System.out.println("=== END DEBUG ===\n");
+    }
+
+    private List<UiNode> matching(int[] column, String value) {
+        int id = value == null || value.isEmpty() ? NONE : stringId(value);
+        if (id == NONE) {
+            return List.of();
+        }
+        List<UiNode> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (column[i] == id) {
+                result.add(node(i));
+            }
+        }
+        return result;
+    }
+
+    // The string table holds a few hundred entries, a scan beats keeping a map per snapshot
+    private int stringId(String value) {
+        for (int i = 0; i < strings.length; i++) {
+            if (strings[i].equals(value)) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    private String string(int id) {
+        return id == NONE ? null : strings[id];
+    }
+
+    private static String intern(String value) {
+        String canonical = interned.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (interned.size() >= MAX_INTERNED) {
+            return value;
+        }
+        canonical = interned.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+
+    // UiAutomator2 bounds look like "[x1,y1][x2,y2]"
+    static Bounds parseBounds(String bounds) {
+        int[] box = new int[4];
+        return parseBounds(bounds, box, 0) ? new Bounds(box[0], box[1], box[2], box[3]) : null;
+    }
+
+    // Writes x, y, width, height at offset without allocating; false when malformed
+    private static boolean parseBounds(String bounds, int[] out, int offset) {
+        if (bounds == null || bounds.isEmpty()) {
+            return false;
+        }
+        int[] corners = new int[4];
+        int found = 0;
+        int value = 0;
+        boolean inNumber = false;
+        boolean negative = false;
+        for (int i = 0; i < bounds.length(); i++) {
+            char c = bounds.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                inNumber = true;
+            } else if (c == '-' && !inNumber) {
+                negative = true;
+            } else if (c == ' ') {
+                continue;
+            } else {
+                if (inNumber) {
+                    if (found == 4) {
+                        return false;
+                    }
+                    corners[found++] = negative ? -value : value;
+                }
+                value = 0;
+                inNumber = false;
+                negative = false;
+            }
+        }
+        if (inNumber && found < 4) {
+            corners[found++] = negative ? -value : value;
+        }
+        if (found != 4) {
+            return false;
+        }
+        out[offset] = corners[0];
+        out[offset + 1] = corners[1];
+        out[offset + 2] = corners[2] - corners[0];
+        out[offset + 3] = corners[3] - corners[1];
+        return true;
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    // Growable columns filled while streaming
+    private static final class Builder {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private int size;
+        private int[] classIds = new int[128];
+        private int[] resourceIds = new int[128];
+        private int[] textIds = new int[128];
+        private int[] hintIds = new int[128];
+        private int[] descIds = new int[128];
+        private byte[] flags = new byte[128];
+        private int[] bounds = new int[128 * 4];
+        private int[] parents = new int[128];
+
+        // Index of the new node, or NONE for elements that are not UI nodes (the <hierarchy> root)
+        int add(XMLStreamReader xml, int parent) {
+            String className = null;
+            String resourceId = null;
+            String text = null;
+            String hint = null;
+            String desc = null;
+            String boundsValue = null;
+            byte f = ENABLED | DISPLAYED;
+            for (int i = 0; i < xml.getAttributeCount(); i++) {
+                String value = xml.getAttributeValue(i);
+                switch (xml.getAttributeLocalName(i)) {
+                    case "class" -> className = value;
+                    case "resource-id" -> resourceId = value;
+                    case "text" -> text = value;
+                    case "hint" -> hint = value;
+                    case "content-desc" -> desc = value;
+                    case "bounds" -> boundsValue = value;
+                    case "enabled" -> f = "false".equals(value) ? (byte) (f & ~ENABLED) : f;
+                    case "displayed" -> f = "false".equals(value) ? (byte) (f & ~DISPLAYED) : f;
+                    case "clickable" -> f = "true".equals(value) ? (byte) (f | CLICKABLE) : f;
+                    default -> {
+                        // Other attributes (checkable, focused, package, ...) are not looked up
+                    }
+                }
+            }
+            if (className == null && boundsValue == null) {
+                return NONE;
+            }
+
+            if (size == parents.length) {
+                grow();
+            }
+            int index = size++;
+            classIds[index] = id(className != null ? className : xml.getLocalName(), true);
+            resourceIds[index] = id(resourceId, true);
+            textIds[index] = id(text, false);
+            hintIds[index] = id(hint, false);
+            descIds[index] = id(desc, false);
+            if (parseBounds(boundsValue, bounds, index * 4)) {
+                f |= HAS_BOUNDS;
+            }
+            flags[index] = f;
+            parents[index] = parent;
+            return index;
+        }
+
+        private int id(String value, boolean shared) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer existing = stringIds.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int id = strings.size();
+            strings.add(shared ? intern(value) : value);
+            stringIds.put(value, id);
+            return id;
+        }
+
+        private void grow() {
+            int capacity = parents.length * 2;
+            classIds = Arrays.copyOf(classIds, capacity);
+            resourceIds = Arrays.copyOf(resourceIds, capacity);
+            textIds = Arrays.copyOf(textIds, capacity);
+            hintIds = Arrays.copyOf(hintIds, capacity);
+            descIds = Arrays.copyOf(descIds, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            bounds = Arrays.copyOf(bounds, capacity * 4);
+            parents = Arrays.copyOf(parents, capacity);
+        }
+    }
+
+    // Snapshots kept between lookups (ScreenGeometry), bounded by total retained
+    // bytes and by age; least recently used entries go first.
+    //   -Dsnapshot.retention.maxBytes   default 8 MB per cache
+    //   -Dsnapshot.retention.maxAgeMs   default 5 minutes
+    public static final class Cache {
+        private record Entry(ScreenSnapshot snapshot, long bytes, long storedAt) {
+        }
+
+        private final String name;
+        private final long maxBytes;
+        private final long maxAgeMs;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long retainedBytes;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        public Cache(String name) {
+            this(name, Long.getLong("snapshot.retention.maxBytes", 8L * 1024 * 1024),
+                Long.getLong("snapshot.retention.maxAgeMs", 5 * 60 * 1000));
+        }
+
+        public Cache(String name, long maxBytes, long maxAgeMs) {
+            this.name = name;
+            this.maxBytes = maxBytes;
+            this.maxAgeMs = maxAgeMs;
+        }
+
+        public synchronized ScreenSnapshot get(String key) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.storedAt() > maxAgeMs) {
+                drop(key, entry);
+                entry = null;
+            }
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.snapshot();
+        }
+
+        // Keeps the first snapshot stored under key and returns it
+        public synchronized ScreenSnapshot putIfAbsent(String key, ScreenSnapshot snapshot) {
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                return existing.snapshot();
+            }
+            Entry entry = new Entry(snapshot, snapshot.retainedBytes(), System.currentTimeMillis());
+            entries.put(key, entry);
+            retainedBytes += entry.bytes();
+            trim();
+            return snapshot;
+        }
+
+        public synchronized void remove(String key) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                drop(key, entry);
+            }
+        }
+
+        public synchronized long retainedBytes() {
+            return retainedBytes;
+        }
+
+        public synchronized void printStats() {
+            if (hits + misses == 0) {
+                return;
+            }
+            System.out.println("🗂️ Snapshot cache " + name + ": " + entries.size() + " kept (" + retainedBytes / 1024
+                + " KB of " + maxBytes / 1024 + " KB), " + hits + " hits, " + misses + " misses, " + evictions + " evicted");
+        }
+
+        // Least recently used first: evict while over budget, and anything past its age
+        private void trim() {
+            long now = System.currentTimeMillis();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (eldest.hasNext()) {
+                Entry entry = eldest.next();
+                if (retainedBytes > maxBytes || now - entry.storedAt() > maxAgeMs) {
+                    eldest.remove();
+                    retainedBytes -= entry.bytes();
+                    evictions++;
+                }
+            }
+        }
+
+        private void drop(String key, Entry entry) {
+            entries.remove(key);
+            retainedBytes -= entry.bytes();
+            evictions++;
+        }
+    }
+}
@@ -3,17 +3,42 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import io.github.bonigarcia.wdm.WebDriverManager;
 
 public class SeleniumRunner {
+    // Halaman utama KRS; mode --parallel mengganti ke fixture lokal
+    private static volatile String baseUrl = System.getProperty("krs.baseUrl", "https://krs.usk.ac.id/");
+    
+    // Jumlah maksimum browser headless yang berjalan bersamaan
+    private static final int DEFAULT_MAX_BROWSERS = 3;
+    private static final Duration SCENARIO_TIMEOUT = Duration.ofMinutes(2);
+    
     public static void main(String[] args) {
-        // Setup ChromeDriver
+        if (args.length > 0 && args[0].equals("--parallel")) {
+            runParallel(args);
+            return;
+        }
+        
+        // Setup ChromeDriver, dengan transport JdkHttpClient seperti mode paralel
         WebDriverManager.chromedriver().setup();
-        WebDriver driver = new ChromeDriver();
+        WebDriver driver;
+        try {
+            driver = chrome(new ChromeOptions());
+        } catch (IOException e) {
+            System.out.println("Tidak dapat menjalankan ChromeDriver: " + e.getMessage());
+            return;
+        }
         
         try {
             // Memperbesar window browser untuk menghindari mobile layout
@@ -23,15 +48,15 @@ public class SeleniumRunner {
             runScenario1(driver);
             
             // Reset browser untuk skenario 2
-            driver.get("https://krs.usk.ac.id/");
-            Thread.sleep(3000);
+            driver.get(baseUrl);
+            UiWait.settle(driver, "Reset untuk skenario 2", 3000);
             
             // Eksekusi skenario 2: Input data kosong
             runScenario2(driver);
             
             // Reset browser untuk skenario 3
-            driver.get("https://krs.usk.ac.id/");
-            Thread.sleep(3000);
+            driver.get(baseUrl);
+            UiWait.settle(driver, "Reset untuk skenario 3", 3000);
             
             // Eksekusi skenario 3: Input nomor ujian dan tanggal lahir asal-asalan
             runScenario3(driver);
@@ -48,12 +73,126 @@ public class SeleniumRunner {
         }
     }
     
+    // Mode paralel: setiap skenario mendapat browser headless sendiri dari pool
+    // terbatas dan browser selalu ditutup setelah skenario selesai.
+    //   SeleniumRunner --parallel [maxBrowsers] [--live]
+    // Tanpa --live skenario dijalankan terhadap fixture lokal (offline).
+    private static void runParallel(String[] args) {
+        int maxBrowsers = DEFAULT_MAX_BROWSERS;
+        boolean live = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--live")) {
+                live = true;
+            } else {
+                maxBrowsers = Integer.parseInt(args[i]);
+            }
+        }
+        
+        KrsFixtureServer fixture = null;
+        // Virtual thread per skenario; jumlah browser tetap dibatasi maxBrowsers
+        try (ScenarioExecutor executor = new ScenarioExecutor(maxBrowsers)) {
+            if (!live) {
+                fixture = new KrsFixtureServer(0);
+                baseUrl = fixture.url();
+            }
+            WebDriverManager.chromedriver().setup();
+            
+            long start = System.currentTimeMillis();
+            List<ScenarioExecutor.Outcome> outcomes = executor.runAll(List.of(
+                new ScenarioExecutor.Scenario("Skenario 1", SCENARIO_TIMEOUT, () -> runIsolated("Skenario 1", SeleniumRunner::runScenario1)),
+                new ScenarioExecutor.Scenario("Skenario 2", SCENARIO_TIMEOUT, () -> runIsolated("Skenario 2", SeleniumRunner::runScenario2)),
+                new ScenarioExecutor.Scenario("Skenario 3", SCENARIO_TIMEOUT, () -> runIsolated("Skenario 3", SeleniumRunner::runScenario3))));
+            
+            long slowest = 0;
+            long total = 0;
+            for (ScenarioExecutor.Outcome outcome : outcomes) {
+                if (!outcome.passed()) {
+                    System.out.println(outcome.name() + " " + outcome.status() + ": " + outcome.error());
+                }
+                slowest = Math.max(slowest, outcome.durationMs());
+                total += outcome.durationMs();
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            System.out.println("Semua skenario selesai dalam " + elapsed + " ms (skenario terlama " + slowest
+                + " ms, total jika berurutan " + total + " ms)");
+        } catch (Exception e) {
+            System.out.println("Terjadi error utama: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (fixture != null) {
+                fixture.close();
+            }
+        }
+    }
+    
+    // Satu browser headless terisolasi per skenario; mengembalikan durasi dalam ms
+    private static long runIsolated(String name, Consumer<WebDriver> scenario) throws IOException {
+        long start = System.currentTimeMillis();
+        WebDriver driver = headlessChrome();
+        try {
+            scenario.accept(driver);
+        } finally {
+            driver.quit();
+        }
+        long duration = System.currentTimeMillis() - start;
+        System.out.println(name + " selesai dalam " + duration + " ms");
+        return duration;
+    }
+    
+    // ChromeDriver headless untuk satu skenario
+    private static WebDriver headlessChrome() throws IOException {
+        return chrome(headlessOptions());
+    }
+    
+    // ChromeDriver dengan transport JdkHttpClient; service ikut dihentikan saat quit()
+    private static WebDriver chrome(ChromeOptions options) throws IOException {
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        service.start();
+        try {
+            HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), service.getUrl(), JdkHttpClient.factory());
+            return new ServiceDriver(executor, options, service);
+        } catch (RuntimeException e) {
+            service.stop();
+            throw e;
+        }
+    }
+    
+    // RemoteWebDriver yang memiliki service-nya sendiri. RemoteWebDriver dari
+    // Selenium 3 mengimplementasikan findElement(s) generik milik java-client
+    // secara raw, sehingga subclass apa pun memicu peringatan unchecked.
+    @SuppressWarnings("unchecked")
+    private static final class ServiceDriver extends RemoteWebDriver {
+        private final ChromeDriverService service;
+        
+        ServiceDriver(HttpCommandExecutor executor, ChromeOptions options, ChromeDriverService service) {
+            super(executor, options);
+            this.service = service;
+        }
+        
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                service.stop();
+            }
+        }
+    }
+    
+    private static ChromeOptions headlessOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--disable-gpu", "--no-sandbox", "--disable-dev-shm-usage");
+        // Ukuran layar desktop untuk menghindari mobile layout (pengganti maximize)
+        options.addArguments("--window-size=1920,1080");
+        return options;
+    }
+    
     // Fungsi untuk menavigasi dari halaman utama ke halaman Cek NPM
     private static void navigasiKeHalamanCekNPM(WebDriver driver, WebDriverWait wait) throws Exception {
         // Akses halaman utama KRS USK
-        driver.get("https://krs.usk.ac.id/");
+        driver.get(baseUrl);
         System.out.println("Mengakses halaman utama KRS USK");
-        Thread.sleep(3000);
+        UiWait.settle(driver, "Halaman utama KRS", 3000);
         
         // Cari dan klik menu Cek NPM
         try {
@@ -64,25 +203,20 @@ public class SeleniumRunner {
             System.out.println("Berhasil klik menu Cek NPM dengan selector utama");
         } catch (Exception e) {
             System.out.println("Selector menu utama gagal, mencoba alternatif...");
-            List<WebElement> links = driver.findElements(By.tagName("a"));
-            boolean clicked = false;
-            for (WebElement link : links) {
-                if (link.getText().contains("Cek NPM") || 
-                    (link.getAttribute("href") != null && link.getAttribute("href").contains("cek-npm"))) {
-                    link.click();
-                    clicked = true;
-                    System.out.println("Berhasil klik menu Cek NPM dengan selector alternatif");
-                    break;
-                }
-            }
-            if (!clicked) {
+            // Satu executeScript untuk teks dan href semua link
+            BulkQuery.Match link = BulkQuery.first(driver, "a", m -> m.text().contains("Cek NPM")
+                || (m.attribute("href") != null && m.attribute("href").contains("cek-npm")), "href");
+            if (link != null) {
+                link.element().click();
+                System.out.println("Berhasil klik menu Cek NPM dengan selector alternatif");
+            } else {
                 System.out.println("Tidak dapat menemukan menu Cek NPM, mengakses URL secara langsung");
-                driver.get("https://krs.usk.ac.id/profile/cek-npm");
+                driver.get(baseUrl + "profile/cek-npm");
             }
         }
         
         // Tunggu halaman Cek NPM dimuat
-        Thread.sleep(2000);
+        UiWait.settle(driver, "Halaman Cek NPM", 2000);
     }
     
     // Fungsi untuk menangkap hasil NPM atau pesan error
@@ -93,15 +227,15 @@ public class SeleniumRunner {
                 By.cssSelector(".alert, .alert-success, .alert-danger, .swal2-content, [class*='result'], [id*='result'], p, span")
             ));
             
-            // Cari semua elemen yang mungkin berisi hasil atau pesan error
-            List<WebElement> resultElements = driver.findElements(
-                By.cssSelector(".alert, .alert-success, .alert-danger, .swal2-content, [class*='result'], [id*='result'], p, span")
+            // Cari semua elemen yang mungkin berisi hasil atau pesan error (satu round trip)
+            List<BulkQuery.Match> resultElements = BulkQuery.select(driver,
+                ".alert, .alert-success, .alert-danger, .swal2-content, [class*='result'], [id*='result'], p, span"
             );
             
             boolean resultFound = false;
-            for (WebElement element : resultElements) {
-                if (element.isDisplayed()) {
-                    String resultText = element.getText().trim();
+            for (BulkQuery.Match element : resultElements) {
+                if (element.displayed()) {
+                    String resultText = element.text();
                     if (!resultText.isEmpty()) {
                         // Asumsi NPM mengandung angka panjang atau kata kunci seperti "NPM", "Nomor Pokok Mahasiswa"
                         if (resultText.matches(".*\\d{8,}.*") || 
@@ -128,7 +262,7 @@ public class SeleniumRunner {
     // Skenario 1: Input data lengkap
     private static void runScenario1(WebDriver driver) {
         System.out.println("===== Menjalankan Skenario 1: Input Data Lengkap =====");
-        WebDriverWait wait = new WebDriverWait(driver, 15);
+        WebDriverWait wait = ScreenEvents.waitFor(driver, 15);
         
         try {
             navigasiKeHalamanCekNPM(driver, wait);
@@ -141,24 +275,18 @@ public class SeleniumRunner {
                 System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector utama");
             } catch (Exception e) {
                 System.out.println("Selector utama gagal, mencoba alternatif...");
-                List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                boolean clicked = false;
-                for (WebElement button : buttons) {
-                    if (button.getText().contains("S1/D3/D4")) {
-                        button.click();
-                        clicked = true;
-                        System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector alternatif");
-                        break;
-                    }
-                }
-                if (!clicked) {
+                BulkQuery.Match button = BulkQuery.first(driver, "button", m -> m.text().contains("S1/D3/D4"));
+                if (button != null) {
+                    button.element().click();
+                    System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector alternatif");
+                } else {
                     JavascriptExecutor js = (JavascriptExecutor) driver;
                     js.executeScript("document.querySelector('button[data-jenjang=\"1\"]').click();");
                     System.out.println("Mencoba klik tombol jenjang S1/D3/D4 dengan JavaScript");
                 }
             }
             
-            Thread.sleep(2000);
+            UiWait.settle(driver, "Pilih jenjang", 2000);
             
             try {
                 WebElement nomorUjianInput = wait.until(ExpectedConditions.presenceOfElementLocated(
@@ -169,15 +297,12 @@ public class SeleniumRunner {
                 System.out.println("Berhasil mengisi Nomor Ujian");
             } catch (Exception e) {
                 System.out.println("Selector input nomor ujian gagal, mencoba alternatif...");
-                List<WebElement> inputs = driver.findElements(By.tagName("input"));
-                for (WebElement input : inputs) {
-                    String placeholder = input.getAttribute("placeholder");
-                    if (placeholder != null && placeholder.contains("Nomor Ujian")) {
-                        input.clear();
-                        input.sendKeys("425172915");
-                        System.out.println("Berhasil mengisi Nomor Ujian dengan selector alternatif");
-                        break;
-                    }
+                BulkQuery.Match input = BulkQuery.first(driver, "input",
+                    m -> m.attribute("placeholder") != null && m.attribute("placeholder").contains("Nomor Ujian"), "placeholder");
+                if (input != null) {
+                    input.element().clear();
+                    input.element().sendKeys("425172915");
+                    System.out.println("Berhasil mengisi Nomor Ujian dengan selector alternatif");
                 }
             }
             
@@ -190,15 +315,12 @@ public class SeleniumRunner {
                 System.out.println("Berhasil mengisi Tanggal Lahir");
             } catch (Exception e) {
                 System.out.println("Selector input tanggal lahir gagal, mencoba alternatif...");
-                List<WebElement> inputs = driver.findElements(By.tagName("input"));
-                for (WebElement input : inputs) {
-                    String placeholder = input.getAttribute("placeholder");
-                    if (placeholder != null && placeholder.contains("Tanggal Lahir")) {
-                        input.clear();
-                        input.sendKeys("17-04-2007");
-                        System.out.println("Berhasil mengisi Tanggal Lahir dengan selector alternatif");
-                        break;
-                    }
+                BulkQuery.Match input = BulkQuery.first(driver, "input",
+                    m -> m.attribute("placeholder") != null && m.attribute("placeholder").contains("Tanggal Lahir"), "placeholder");
+                if (input != null) {
+                    input.element().clear();
+                    input.element().sendKeys("17-04-2007");
+                    System.out.println("Berhasil mengisi Tanggal Lahir dengan selector alternatif");
                 }
             }
             
@@ -210,17 +332,11 @@ public class SeleniumRunner {
                 System.out.println("Berhasil klik tombol CEK");
             } catch (Exception e) {
                 System.out.println("Selector tombol cek gagal, mencoba alternatif...");
-                List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                boolean clicked = false;
-                for (WebElement button : buttons) {
-                    if (button.getText().contains("CEK")) {
-                        button.click();
-                        clicked = true;
-                        System.out.println("Berhasil klik tombol CEK dengan selector alternatif");
-                        break;
-                    }
-                }
-                if (!clicked) {
+                BulkQuery.Match button = BulkQuery.first(driver, "button", m -> m.text().contains("CEK"));
+                if (button != null) {
+                    button.element().click();
+                    System.out.println("Berhasil klik tombol CEK dengan selector alternatif");
+                } else {
                     JavascriptExecutor js = (JavascriptExecutor) driver;
                     js.executeScript("document.querySelector('button[type=\"submit\"].btn-primary').click();");
                     System.out.println("Mencoba klik tombol CEK dengan JavaScript");
@@ -229,7 +345,7 @@ public class SeleniumRunner {
             
             // Tunggu hasil proses dan tangkap hasil NPM
             System.out.println("Menunggu hasil pengecekan NPM untuk Skenario 1...");
-            Thread.sleep(5000);
+            UiWait.settle(driver, "Hasil Skenario 1", 5000);
             captureResult(driver, wait);
             
         } catch (Exception e) {
@@ -241,7 +357,7 @@ public class SeleniumRunner {
     // Skenario 2: Input data kosong
     private static void runScenario2(WebDriver driver) {
         System.out.println("===== Menjalankan Skenario 2: Input Data Kosong =====");
-        WebDriverWait wait = new WebDriverWait(driver, 15);
+        WebDriverWait wait = ScreenEvents.waitFor(driver, 15);
         
         try {
             navigasiKeHalamanCekNPM(driver, wait);
@@ -254,24 +370,18 @@ public class SeleniumRunner {
                 System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector utama");
             } catch (Exception e) {
                 System.out.println("Selector utama gagal, mencoba alternatif...");
-                List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                boolean clicked = false;
-                for (WebElement button : buttons) {
-                    if (button.getText().contains("S1/D3/D4")) {
-                        button.click();
-                        clicked = true;
-                        System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector alternatif");
-                        break;
-                    }
-                }
-                if (!clicked) {
+                BulkQuery.Match button = BulkQuery.first(driver, "button", m -> m.text().contains("S1/D3/D4"));
+                if (button != null) {
+                    button.element().click();
+                    System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector alternatif");
+                } else {
                     JavascriptExecutor js = (JavascriptExecutor) driver;
                     js.executeScript("document.querySelector('button[data-jenjang=\"1\"]').click();");
                     System.out.println("Mencoba klik tombol jenjang S1/D3/D4 dengan JavaScript");
                 }
             }
             
-            Thread.sleep(2000);
+            UiWait.settle(driver, "Pilih jenjang", 2000);
             
             try {
                 WebElement cekButton = wait.until(ExpectedConditions.elementToBeClickable(
@@ -281,17 +391,11 @@ public class SeleniumRunner {
                 System.out.println("Berhasil klik tombol CEK");
             } catch (Exception e) {
                 System.out.println("Selector tombol cek gagal, mencoba alternatif...");
-                List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                boolean clicked = false;
-                for (WebElement button : buttons) {
-                    if (button.getText().contains("CEK")) {
-                        button.click();
-                        clicked = true;
-                        System.out.println("Berhasil klik tombol CEK dengan selector alternatif");
-                        break;
-                    }
-                }
-                if (!clicked) {
+                BulkQuery.Match button = BulkQuery.first(driver, "button", m -> m.text().contains("CEK"));
+                if (button != null) {
+                    button.element().click();
+                    System.out.println("Berhasil klik tombol CEK dengan selector alternatif");
+                } else {
                     JavascriptExecutor js = (JavascriptExecutor) driver;
                     js.executeScript("document.querySelector('button[type=\"submit\"].btn-primary').click();");
                     System.out.println("Mencoba klik tombol CEK dengan JavaScript");
@@ -300,7 +404,7 @@ public class SeleniumRunner {
             
             // Tunggu hasil proses dan tangkap pesan error
             System.out.println("Menunggu hasil validasi form untuk Skenario 2...");
-            Thread.sleep(5000);
+            UiWait.settle(driver, "Hasil Skenario 2", 5000);
             captureResult(driver, wait);
             
         } catch (Exception e) {
@@ -312,7 +416,7 @@ public class SeleniumRunner {
     // Skenario 3: Input nomor ujian dan tanggal lahir asal-asalan
     private static void runScenario3(WebDriver driver) {
         System.out.println("===== Menjalankan Skenario 3: Input Nomor Ujian dan Tanggal Lahir Asal-asalan =====");
-        WebDriverWait wait = new WebDriverWait(driver, 15);
+        WebDriverWait wait = ScreenEvents.waitFor(driver, 15);
         
         try {
             navigasiKeHalamanCekNPM(driver, wait);
@@ -325,24 +429,18 @@ public class SeleniumRunner {
                 System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector utama");
             } catch (Exception e) {
                 System.out.println("Selector utama gagal, mencoba alternatif...");
-                List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                boolean clicked = false;
-                for (WebElement button : buttons) {
-                    if (button.getText().contains("S1/D3/D4")) {
-                        button.click();
-                        clicked = true;
-                        System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector alternatif");
-                        break;
-                    }
-                }
-                if (!clicked) {
+                BulkQuery.Match button = BulkQuery.first(driver, "button", m -> m.text().contains("S1/D3/D4"));
+                if (button != null) {
+                    button.element().click();
+                    System.out.println("Berhasil klik tombol jenjang S1/D3/D4 dengan selector alternatif");
+                } else {
                     JavascriptExecutor js = (JavascriptExecutor) driver;
                     js.executeScript("document.querySelector('button[data-jenjang=\"1\"]').click();");
                     System.out.println("Mencoba klik tombol jenjang S1/D3/D4 dengan JavaScript");
                 }
             }
             
-            Thread.sleep(2000);
+            UiWait.settle(driver, "Pilih jenjang", 2000);
             
             try {
                 WebElement nomorUjianInput = wait.until(ExpectedConditions.presenceOfElementLocated(
@@ -353,15 +451,12 @@ public class SeleniumRunner {
                 System.out.println("Berhasil mengisi Nomor Ujian dengan data asal-asalan: 123");
             } catch (Exception e) {
                 System.out.println("Selector input nomor ujian gagal, mencoba alternatif...");
-                List<WebElement> inputs = driver.findElements(By.tagName("input"));
-                for (WebElement input : inputs) {
-                    String placeholder = input.getAttribute("placeholder");
-                    if (placeholder != null && placeholder.contains("Nomor Ujian")) {
-                        input.clear();
-                        input.sendKeys("123");
-                        System.out.println("Berhasil mengisi Nomor Ujian dengan selector alternatif: 123");
-                        break;
-                    }
+                BulkQuery.Match input = BulkQuery.first(driver, "input",
+                    m -> m.attribute("placeholder") != null && m.attribute("placeholder").contains("Nomor Ujian"), "placeholder");
+                if (input != null) {
+                    input.element().clear();
+                    input.element().sendKeys("123");
+                    System.out.println("Berhasil mengisi Nomor Ujian dengan selector alternatif: 123");
                 }
             }
             
@@ -374,15 +469,12 @@ public class SeleniumRunner {
                 System.out.println("Berhasil mengisi Tanggal Lahir dengan data asal-asalan: 01-01-2001");
             } catch (Exception e) {
                 System.out.println("Selector input tanggal lahir gagal, mencoba alternatif...");
-                List<WebElement> inputs = driver.findElements(By.tagName("input"));
-                for (WebElement input : inputs) {
-                    String placeholder = input.getAttribute("placeholder");
-                    if (placeholder != null && placeholder.contains("Tanggal Lahir")) {
-                        input.clear();
-                        input.sendKeys("01-01-2001");
-                        System.out.println("Berhasil mengisi Tanggal Lahir dengan selector alternatif: 01-01-2001");
-                        break;
-                    }
+                BulkQuery.Match input = BulkQuery.first(driver, "input",
+                    m -> m.attribute("placeholder") != null && m.attribute("placeholder").contains("Tanggal Lahir"), "placeholder");
+                if (input != null) {
+                    input.element().clear();
+                    input.element().sendKeys("01-01-2001");
+                    System.out.println("Berhasil mengisi Tanggal Lahir dengan selector alternatif: 01-01-2001");
                 }
             }
             
@@ -394,17 +486,11 @@ public class SeleniumRunner {
                 System.out.println("Berhasil klik tombol CEK");
             } catch (Exception e) {
                 System.out.println("Selector tombol cek gagal, mencoba alternatif...");
-                List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                boolean clicked = false;
-                for (WebElement button : buttons) {
-                    if (button.getText().contains("CEK")) {
-                        button.click();
-                        clicked = true;
-                        System.out.println("Berhasil klik tombol CEK dengan selector alternatif");
-                        break;
-                    }
-                }
-                if (!clicked) {
+                BulkQuery.Match button = BulkQuery.first(driver, "button", m -> m.text().contains("CEK"));
+                if (button != null) {
+                    button.element().click();
+                    System.out.println("Berhasil klik tombol CEK dengan selector alternatif");
+                } else {
                     JavascriptExecutor js = (JavascriptExecutor) driver;
                     js.executeScript("document.querySelector('button[type=\"submit\"].btn-primary').click();");
                     System.out.println("Mencoba klik tombol CEK dengan JavaScript");
@@ -413,7 +499,7 @@ public class SeleniumRunner {
             
             // Tunggu hasil proses dan tangkap hasil NPM atau pesan error
             System.out.println("Menunggu hasil validasi form untuk Skenario 3...");
-            Thread.sleep(5000);
+            UiWait.settle(driver, "Hasil Skenario 3", 5000);
             captureResult(driver, wait);
             
         } catch (Exception e) {
@@ -0,0 +1,224 @@
+package appium;
+
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.AndroidElement;
+
+// Keeps UiAutomator2 sessions warm between scenarios instead of creating and
+// quitting an AndroidDriver for every run. A released session is parked as
+// is; the next acquire() for the same device and app resets its app state
+// (terminate, clear data, activate) before handing it out, so the last
+// release of a run costs nothing and leaves the app alone. Sessions created
+// with noReset=true keep the app's data: terminate and activate only.
+// Broken sessions are evicted.
+public class SessionPool {
+    private static final SessionPool shared = new SessionPool();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(shared::shutdown, "session-pool-shutdown"));
+    }
+
+    private final Map<String, Deque<PooledSession>> idle = new HashMap<>();
+    private final Map<AndroidDriver<AndroidElement>, PooledSession> leased = new IdentityHashMap<>();
+
+    private int coldStarts = 0;
+    private long coldStartTotalMs = 0;
+    private int warmReuses = 0;
+    private long warmOverheadTotalMs = 0;
+    private int evictions = 0;
+
+    private record PooledSession(AndroidDriver<AndroidElement> driver, String key, String appPackage, boolean noReset) {
+    }
+
+    public static SessionPool shared() {
+        return shared;
+    }
+
+    public AndroidDriver<AndroidElement> acquire(URL serverUrl, DesiredCapabilities cap) {
+        return acquire(serverUrl, cap, null);
+    }
+
+    // Same, for capabilities built from a CapabilityProfiles profile: cold starts are timed per profile
+    public AndroidDriver<AndroidElement> acquire(URL serverUrl, DesiredCapabilities cap, String profile) {
+        String key = sessionKey(serverUrl, cap) + (profile == null ? "" : "|" + profile);
+        String appPackage = appPackage(cap);
+        boolean noReset = Boolean.parseBoolean(String.valueOf(capability(cap, "noReset")));
+
+        while (true) {
+            PooledSession parked;
+            synchronized (this) {
+                Deque<PooledSession> sessions = idle.get(key);
+                parked = sessions == null ? null : sessions.pollFirst();
+            }
+            if (parked == null) {
+                break;
+            }
+
+            AndroidDriver<AndroidElement> candidate = parked.driver();
+            long start = System.currentTimeMillis();
+            if (!isHealthy(candidate)) {
+                evict(candidate, "failed health check");
+                continue;
+            }
+            try {
+                resetAppState(candidate, parked.appPackage(), parked.noReset());
+            } catch (Exception e) {
+                evict(candidate, "app reset failed: " + e.getMessage());
+                continue;
+            }
+            long overhead = System.currentTimeMillis() - start;
+            synchronized (this) {
+                warmReuses++;
+                warmOverheadTotalMs += overhead;
+                leased.put(candidate, parked);
+            }
+            System.out.println("♻️ Reusing warm session " + candidate.getSessionId() + " for " + key
+                + (parked.noReset() ? " (app restarted, data kept" : " (app reset")
+                + ", saved ~" + Math.max(0, averageColdStartMs() - overhead) + " ms vs cold start)");
+            return candidate;
+        }
+
+        long start = System.currentTimeMillis();
+        AndroidDriver<AndroidElement> driver;
+        try {
+            driver = new AndroidDriver<>(new TimedCommandExecutor(serverUrl), cap);
+        } catch (RuntimeException e) {
+            if (profile != null) {
+                CapabilityProfiles.shared().recordStart(udid(cap), profile, System.currentTimeMillis() - start, false);
+            }
+            throw e;
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        if (profile != null) {
+            CapabilityProfiles.shared().recordStart(udid(cap), profile, elapsed, true);
+        }
+        synchronized (this) {
+            coldStarts++;
+            coldStartTotalMs += elapsed;
+            leased.put(driver, new PooledSession(driver, key, appPackage, noReset));
+        }
+        System.out.println("🆕 Cold session " + driver.getSessionId() + " for " + key + " created in " + elapsed + " ms");
+        return driver;
+    }
+
+    // Parks the session for the next scenario on the same device; acquire() resets it on reuse
+    public void release(AndroidDriver<AndroidElement> driver) {
+        PooledSession session;
+        synchronized (this) {
+            session = leased.remove(driver);
+            if (session != null) {
+                idle.computeIfAbsent(session.key(), k -> new ArrayDeque<>()).addLast(session);
+            }
+        }
+        if (session == null) {
+            driver.quit();
+            return;
+        }
+        System.out.println("🅿️ Session " + driver.getSessionId() + " returned to pool");
+    }
+
+    public void shutdown() {
+        List<AndroidDriver<AndroidElement>> toQuit = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<PooledSession> sessions : idle.values()) {
+                for (PooledSession session : sessions) {
+                    toQuit.add(session.driver());
+                }
+            }
+            idle.clear();
+        }
+        for (AndroidDriver<AndroidElement> driver : toQuit) {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                // Session already gone on the server side
+            }
+        }
+        printReport();
+        // Quitting the pooled sessions above recorded cmd: timings after StepMetrics' own hook may have run
+        StepMetrics.export();
+    }
+
+    public synchronized void printReport() {
+        if (coldStarts == 0 && warmReuses == 0) {
+            return;
+        }
+        long saved = warmReuses * averageColdStartMs() - warmOverheadTotalMs;
+        System.out.println("\n=== SESSION POOL SUMMARY ===");
+        System.out.println("Cold sessions: " + coldStarts + " (avg " + averageColdStartMs() + " ms)");
+        System.out.println("Warm reuses: " + warmReuses + " (reset + health check overhead " + warmOverheadTotalMs + " ms total)");
+        System.out.println("Evicted sessions: " + evictions);
+        System.out.println("Estimated time saved vs cold sessions: " + Math.max(0, saved) + " ms");
+    }
+
+    private synchronized long averageColdStartMs() {
+        return coldStarts == 0 ? 0 : coldStartTotalMs / coldStarts;
+    }
+
+    private static boolean isHealthy(AndroidDriver<AndroidElement> driver) {
+        try {
+            // Any cheap round trip proves the UiAutomator2 server still owns the session
+            driver.getCurrentPackage();
+            return driver.getSessionId() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Fresh app for the next scenario; noReset sessions keep the app's data
+    private static void resetAppState(AndroidDriver<AndroidElement> driver, String appPackage, boolean noReset) {
+        if (appPackage == null) {
+            return;
+        }
+        driver.terminateApp(appPackage);
+        if (!noReset) {
+            try {
+                driver.executeScript("mobile: clearApp", Map.of("appId", appPackage));
+            } catch (Exception e) {
+                System.out.println("⚠️ Could not clear app data for " + appPackage + ": " + e.getMessage());
+            }
+        }
+        driver.activateApp(appPackage);
+    }
+
+    private void evict(AndroidDriver<AndroidElement> driver, String reason) {
+        synchronized (this) {
+            evictions++;
+        }
+        System.out.println("🗑️ Evicting session " + driver.getSessionId() + " (" + reason + ")");
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            // Already broken, nothing more to clean up
+        }
+    }
+
+    private static String sessionKey(URL serverUrl, DesiredCapabilities cap) {
+        return serverUrl + "|" + udid(cap) + "|" + appPackage(cap);
+    }
+
+    private static String udid(DesiredCapabilities cap) {
+        return String.valueOf(capability(cap, "udid"));
+    }
+
+    private static String appPackage(DesiredCapabilities cap) {
+        Object appPackage = capability(cap, "appPackage");
+        return appPackage == null ? null : appPackage.toString();
+    }
+
+    // Capability with or without the "appium:" vendor prefix
+    private static Object capability(DesiredCapabilities cap, String name) {
+        Object value = cap.getCapability("appium:" + name);
+        return value != null ? value : cap.getCapability(name);
+    }
+}
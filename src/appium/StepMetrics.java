@@ -0,0 +1,146 @@
+package appium;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-step and per-WebDriver-command latency histograms. Histograms are
+// merged into reports/step-latency.hist at JVM exit so percentiles cover all
+// runs, and a p50/p95/p99 table is written to reports/step-latency.csv.
+// SessionPool exports once more after its shutdown has quit the pooled
+// sessions, so the cmd: timings of that drain are not lost.
+public class StepMetrics {
+    public interface Step<E extends Exception> {
+        void run() throws E;
+    }
+
+    private static final Path HISTOGRAM_FILE = Paths.get("reports", "step-latency.hist");
+    private static final Path SUMMARY_FILE = Paths.get("reports", "step-latency.csv");
+
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread(StepMetrics::export, "step-metrics-export"));
+        } catch (IllegalStateException e) {
+            // First used from another shutdown hook, which exports itself
+        }
+    }
+
+    public static <E extends Exception> void time(String step, Step<E> body) throws E {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            body.run();
+            completed = true;
+        } finally {
+            record(step, System.nanoTime() - start);
+            if (!completed) {
+                FailureArtifacts.stepFailed(step);
+            }
+        }
+        // Step boundary: evidence of the screen it left behind, when enabled
+        FailureArtifacts.stepCompleted(step);
+    }
+
+    public static void record(String name, long nanos) {
+        histograms.computeIfAbsent(name, k -> new LatencyHistogram()).recordNanos(nanos);
+        // Named steps also go to the per-day history; per-command timings stay histogram-only
+        if (!name.startsWith("cmd:")) {
+            ResultStore.shared().appendStep(name, nanos);
+        }
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.get(name);
+    }
+
+    // Merges this JVM's histograms into the shared file under an exclusive file
+    // lock, so concurrent runs add up instead of overwriting each other. Exported
+    // histograms are removed, so a second export only adds what came in since.
+    public static synchronized void export() {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(HISTOGRAM_FILE.getParent());
+            try (FileChannel channel = FileChannel.open(HISTOGRAM_FILE,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, LatencyHistogram> merged = decode(readAll(channel));
+                    for (String name : new ArrayList<>(histograms.keySet())) {
+                        LatencyHistogram histogram = histograms.remove(name);
+                        if (histogram != null) {
+                            merged.computeIfAbsent(name, k -> new LatencyHistogram()).add(histogram);
+                        }
+                    }
+
+                    StringBuilder encoded = new StringBuilder();
+                    for (Map.Entry<String, LatencyHistogram> entry : merged.entrySet()) {
+                        encoded.append(entry.getKey()).append('\t').append(entry.getValue().encode()).append('\n');
+                    }
+                    ByteBuffer bytes = ByteBuffer.wrap(encoded.toString().getBytes(StandardCharsets.UTF_8));
+                    channel.truncate(0);
+                    // Buffer offset == file offset, since the file was emptied first
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes, bytes.position());
+                    }
+                    channel.force(false);
+                    writeSummary(merged);
+                } finally {
+                    lock.release();
+                }
+            }
+            System.out.println("📈 Step latency percentiles written to " + SUMMARY_FILE.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("❌ Cannot export step latency histograms: " + e.getMessage());
+        }
+    }
+
+    private static void writeSummary(Map<String, LatencyHistogram> merged) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(SUMMARY_FILE, StandardCharsets.UTF_8)) {
+            writer.write("Step,Count,p50 (ms),p95 (ms),p99 (ms),Max (ms)\n");
+            for (Map.Entry<String, LatencyHistogram> entry : merged.entrySet()) {
+                LatencyHistogram h = entry.getValue();
+                writer.write(String.format(Locale.ROOT, "\"%s\",%d,%.1f,%.1f,%.1f,%.1f%n",
+                    entry.getKey(), h.count(),
+                    h.percentileMicros(50) / 1000.0,
+                    h.percentileMicros(95) / 1000.0,
+                    h.percentileMicros(99) / 1000.0,
+                    h.maxMicros() / 1000.0));
+            }
+        }
+    }
+
+    private static String readAll(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // Positional reads until the whole file is in
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, LatencyHistogram> decode(String persisted) {
+        Map<String, LatencyHistogram> merged = new TreeMap<>();
+        for (String line : persisted.split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                merged.put(line.substring(0, tab), LatencyHistogram.decode(line.substring(tab + 1)));
+            }
+        }
+        return merged;
+    }
+}
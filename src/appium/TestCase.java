@@ -0,0 +1,46 @@
+package appium;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One data-driven test case: an id, the flow to run ("login", "fullflow" or
+// "registration"), the expected outcome and the row's input values (email,
+// password, company, ...). Rows come from TestCaseSource; the runners' own
+// main() methods use the in-code defaults.
+public record TestCase(String id, String name, String flow, String description, String expected,
+                       boolean expectSuccess, Map<String, String> data) {
+
+    public TestCase {
+        data = Map.copyOf(data);
+    }
+
+    // Builds a case from one CSV/JSON row; unknown columns become input values
+    public static TestCase fromRow(Map<String, String> row, long rowNumber) {
+        Map<String, String> data = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : row.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                data.put(entry.getKey().trim(), entry.getValue());
+            }
+        }
+        String id = remove(data, "id", String.format("TC%03d", rowNumber));
+        String flow = remove(data, "flow", "login").toLowerCase();
+        String name = remove(data, "name", id + " " + flow);
+        String description = remove(data, "description", name);
+        String expected = remove(data, "expected", "");
+        String outcome = remove(data, "outcome", "success").toLowerCase();
+        boolean expectSuccess = !(outcome.equals("failure") || outcome.equals("fail"));
+        if (expected.isEmpty()) {
+            expected = expectSuccess ? "Flow completes" : "Flow is rejected";
+        }
+        return new TestCase(id, name, flow, description, expected, expectSuccess, data);
+    }
+
+    public String value(String key, String fallback) {
+        return data.getOrDefault(key, fallback);
+    }
+
+    private static String remove(Map<String, String> data, String key, String fallback) {
+        String value = data.remove(key);
+        return value == null || value.isBlank() ? fallback : value.trim();
+    }
+}
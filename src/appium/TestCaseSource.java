@@ -0,0 +1,155 @@
+package appium;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+
+// Lazily streams TestCase rows from a CSV file (header row + quoted fields) or
+// a JSON array of objects. Only the current row is held in memory, so an input
+// with thousands of credential combinations costs no more than a single row.
+public class TestCaseSource implements Iterator<TestCase>, AutoCloseable {
+    private final BufferedReader reader;
+    private final JsonInput json;
+    private final List<String> header;
+    private TestCase next;
+    private long rowNumber = 0;
+
+    private TestCaseSource(Path file) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (file.getFileName().toString().toLowerCase().endsWith(".json")) {
+            this.json = new Json().newInput(reader);
+            this.json.beginArray();
+            this.header = null;
+        } else {
+            this.json = null;
+            this.header = readCsvRecord(reader);
+            if (header == null) {
+                throw new IOException("❌ Test data file is empty: " + file);
+            }
+            header.set(0, header.get(0).replace("\uFEFF", ""));
+        }
+    }
+
+    public static TestCaseSource open(Path file) throws IOException {
+        System.out.println("📂 Streaming test cases from " + file.toAbsolutePath());
+        return new TestCaseSource(file);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public TestCase next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TestCase current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        }
+        reader.close();
+    }
+
+    private TestCase readNext() throws IOException {
+        Map<String, String> row = json != null ? readJsonRow() : readCsvRow();
+        if (row == null) {
+            return null;
+        }
+        return TestCase.fromRow(row, ++rowNumber);
+    }
+
+    private Map<String, String> readJsonRow() {
+        if (!json.hasNext()) {
+            return null;
+        }
+        Map<String, Object> object = json.read(Json.MAP_TYPE);
+        Map<String, String> row = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : object.entrySet()) {
+            row.put(entry.getKey(), entry.getValue() == null ? "" : String.valueOf(entry.getValue()));
+        }
+        return row;
+    }
+
+    private Map<String, String> readCsvRow() throws IOException {
+        List<String> fields;
+        do {
+            fields = readCsvRecord(reader);
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), i < fields.size() ? fields.get(i) : "");
+        }
+        return row;
+    }
+
+    // One CSV record; quoted fields may contain commas, "" escapes and newlines.
+    // Returns null at end of input. Also used by FailureTriage for report files.
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAnything = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            sawAnything = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!sawAnything) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
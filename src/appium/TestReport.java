@@ -0,0 +1,36 @@
+package appium;
+
+import java.util.Locale;
+
+// Row and summary format of the test report CSVs: one quoted row per test
+// case, and the "=== TEST SUMMARY ===" block. ResultSink streams the rows to
+// reports/ecozym_run_*.csv and keeps the summary next to them.
+public class TestReport {
+    public static final String HEADER =
+        "Test Case ID,Test Case Name,Description,Expected Result,Actual Result,Status,Timestamp,Error Message";
+
+    public static String toCsvRow(TestResult result) {
+        return String.join(",",
+            quote(result.testCaseId()),
+            quote(result.testCaseName()),
+            quote(result.description()),
+            quote(result.expectedResult()),
+            quote(result.actualResult()),
+            quote(result.status()),
+            quote(result.timestamp()),
+            quote(result.errorMessage()));
+    }
+
+    public static String summary(int total, int passed) {
+        double passRate = total == 0 ? 0 : passed * 100.0 / total;
+        return "\n=== TEST SUMMARY ===\n"
+            + "Total Test Cases," + total + "\n"
+            + "Passed," + passed + "\n"
+            + "Failed," + (total - passed) + "\n"
+            + "Pass Rate," + String.format(Locale.ROOT, "%.2f%%", passRate) + "\n";
+    }
+
+    private static String quote(String value) {
+        return "\"" + (value == null ? "" : value.replace("\"", "\"\"")) + "\"";
+    }
+}
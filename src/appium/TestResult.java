@@ -0,0 +1,27 @@
+package appium;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// One row of an Ecozym test report
+public record TestResult(String testCaseId, String testCaseName, String description, String expectedResult,
+                         String actualResult, String status, String timestamp, String errorMessage) {
+
+    public static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static TestResult pass(String id, String name, String description, String expected, String actual) {
+        return new TestResult(id, name, description, expected, actual, "PASS", now(), "");
+    }
+
+    public static TestResult fail(String id, String name, String description, String expected, String actual, String error) {
+        return new TestResult(id, name, description, expected, actual, "FAIL", now(), error == null ? "" : error);
+    }
+
+    public boolean passed() {
+        return "PASS".equals(status);
+    }
+
+    private static String now() {
+        return LocalDateTime.now().format(TIMESTAMP_FORMAT);
+    }
+}
@@ -0,0 +1,30 @@
+package appium;
+
+import java.net.URL;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.Response;
+
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+
+// Appium command executor that feeds the duration of every WebDriver command
+// into StepMetrics under "cmd:<command name>". Commands travel over the shared
+// JdkHttpClient transport.
+public class TimedCommandExecutor extends AppiumCommandExecutor {
+
+    public TimedCommandExecutor(URL serverUrl) {
+        super(MobileCommand.commandRepository, serverUrl, JdkHttpClient.factory());
+    }
+
+    @Override
+    public Response execute(Command command) throws WebDriverException {
+        long start = System.nanoTime();
+        try {
+            return super.execute(command);
+        } finally {
+            StepMetrics.record("cmd:" + command.getName(), System.nanoTime() - start);
+        }
+    }
+}
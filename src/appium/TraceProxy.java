@@ -0,0 +1,446 @@
+package appium;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Record-and-replay of Appium traffic. In record mode the proxy sits between
+// the runners and a real Appium server, forwards every command and appends
+// the request, response and server latency to a compact binary trace
+// (gzip, dictionary-coded command names and session ids, varints). In replay
+// mode it answers the same commands from the trace, either at full speed or
+// at the recorded pace, so harness changes can be benchmarked offline against
+// identical server behavior.
+//
+// Usage (point the runners at the proxy, e.g. DeviceScheduler 5cbacd90@http://127.0.0.1:4724):
+//   TraceProxy record http://127.0.0.1:4723 reports/login.trace [4724]
+//   TraceProxy replay reports/login.trace [--paced] [4724]
+//   TraceProxy stats reports/login.trace
+public class TraceProxy implements AutoCloseable {
+    private static final int MAGIC = 0x45435A54; // "ECZT"
+    private static final int VERSION = 1;
+    private static final byte DICTIONARY_ENTRY = 'D';
+    private static final byte EXCHANGE = 'X';
+
+    // How far ahead a replaying session may skip unmatched recorded commands
+    // (e.g. fewer UiWait page-source polls than during the recording)
+    private static final int REPLAY_LOOKAHEAD = 64;
+
+    private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*\"([^\"]+)\"");
+
+    // One recorded command; key is "METHOD /session/:sid/element/:eid/click"
+    public record Exchange(String key, String sessionId, long offsetMicros, long latencyMicros,
+                           int status, byte[] request, byte[] response) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Record mode
+    private final URI upstream;
+    private final HttpClient client;
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final long startNanos = System.nanoTime();
+    private int recorded = 0;
+
+    // Replay mode
+    private final boolean paced;
+    private final Deque<Exchange> pendingSessions = new ArrayDeque<>();
+    private final Map<String, List<Exchange>> bySession = new HashMap<>();
+    private final Map<String, Integer> cursors = new ConcurrentHashMap<>();
+    private final List<Exchange> sessionless = new ArrayList<>();
+
+    private TraceProxy(int port, URI upstream, Path traceFile, List<Exchange> replay, boolean paced) throws IOException {
+        this.upstream = upstream;
+        this.paced = paced;
+        if (upstream != null) {
+            this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+            if (traceFile.getParent() != null) {
+                Files.createDirectories(traceFile.getParent());
+            }
+            this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(traceFile))));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(System.currentTimeMillis());
+        } else {
+            this.client = null;
+            this.out = null;
+            index(replay);
+        }
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.server.createContext("/", upstream != null ? this::forward : this::answer);
+        this.server.setExecutor(executor);
+        this.server.start();
+        System.out.println((upstream != null ? "🎙️ Recording Appium traffic to " + traceFile + " via "
+            : "▶️ Replaying " + replay.size() + " recorded command(s)" + (paced ? " at recorded pace" : " at full speed") + " on ")
+            + url());
+    }
+
+    public static TraceProxy record(String upstreamUrl, Path traceFile, int port) throws IOException {
+        return new TraceProxy(port, URI.create(upstreamUrl.replaceAll("/+$", "")), traceFile, null, false);
+    }
+
+    public static TraceProxy replay(Path traceFile, boolean paced, int port) throws IOException {
+        return new TraceProxy(port, null, null, read(traceFile), paced);
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop(0);
+        executor.shutdownNow();
+        if (out != null) {
+            synchronized (out) {
+                out.close();
+            }
+            System.out.println("🎙️ " + recorded + " command(s) recorded");
+        }
+    }
+
+    // ---- Record mode ----
+
+    private void forward(HttpExchange exchange) throws IOException {
+        byte[] request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = in.readAllBytes();
+        }
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(upstream + path))
+            .timeout(Duration.ofMinutes(5))
+            .header("Content-Type", "application/json; charset=utf-8")
+            .method(method, request.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(request));
+
+        long start = System.nanoTime();
+        int status;
+        byte[] response;
+        try {
+            HttpResponse<byte[]> upstreamResponse = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = upstreamResponse.statusCode();
+            response = upstreamResponse.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 502;
+            response = "{\"value\":{\"error\":\"unknown error\",\"message\":\"Proxy interrupted\"}}".getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            status = 502;
+            response = ("{\"value\":{\"error\":\"unknown error\",\"message\":\"Upstream unreachable: "
+                + String.valueOf(e.getMessage()).replace("\"", "'") + "\"}}").getBytes(StandardCharsets.UTF_8);
+        }
+        long latencyMicros = (System.nanoTime() - start) / 1000;
+
+        String sessionId = sessionIdOf(path);
+        if (sessionId == null && method.equals("POST") && path.equals("/session")) {
+            Matcher matcher = SESSION_ID.matcher(new String(response, StandardCharsets.UTF_8));
+            sessionId = matcher.find() ? matcher.group(1) : null;
+        }
+        append(new Exchange(keyOf(method, path), sessionId, (start - startNanos) / 1000, latencyMicros, status, request, response));
+        send(exchange, status, response);
+    }
+
+    private void append(Exchange exchange) throws IOException {
+        synchronized (out) {
+            int keyId = intern(exchange.key());
+            int sessionRef = exchange.sessionId() == null ? 0 : intern(exchange.sessionId());
+            out.writeByte(EXCHANGE);
+            writeVarLong(out, keyId);
+            writeVarLong(out, sessionRef);
+            writeVarLong(out, exchange.offsetMicros());
+            writeVarLong(out, exchange.latencyMicros());
+            writeVarLong(out, exchange.status());
+            writeVarLong(out, exchange.request().length);
+            out.write(exchange.request());
+            writeVarLong(out, exchange.response().length);
+            out.write(exchange.response());
+            recorded++;
+        }
+    }
+
+    // Dictionary ids start at 1; 0 means "no session"
+    private int intern(String value) throws IOException {
+        Integer id = dictionary.get(value);
+        if (id == null) {
+            id = dictionary.size() + 1;
+            dictionary.put(value, id);
+            out.writeByte(DICTIONARY_ENTRY);
+            out.writeUTF(value);
+        }
+        return id;
+    }
+
+    // ---- Replay mode ----
+
+    private void index(List<Exchange> exchanges) {
+        for (Exchange exchange : exchanges) {
+            if (exchange.key().equals("POST /session")) {
+                pendingSessions.addLast(exchange);
+            } else if (exchange.sessionId() != null) {
+                bySession.computeIfAbsent(exchange.sessionId(), k -> new ArrayList<>()).add(exchange);
+            } else {
+                sessionless.add(exchange);
+            }
+        }
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+        String key = keyOf(method, path);
+
+        Exchange match = key.equals("POST /session") ? nextSession() : lookup(sessionIdOf(path), key);
+        if (match == null) {
+            send(exchange, 404, ("{\"value\":{\"error\":\"unknown command\",\"message\":\"No recorded response for "
+                + key + "\"}}").getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (paced && match.latencyMicros() > 0) {
+            try {
+                Thread.sleep(match.latencyMicros() / 1000, (int) (match.latencyMicros() % 1000) * 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        send(exchange, match.status(), match.response());
+    }
+
+    private synchronized Exchange nextSession() {
+        return pendingSessions.pollFirst();
+    }
+
+    // Next recorded command with this key in the session's timeline; if the
+    // replay asks for more than was recorded, the latest earlier answer is reused
+    private Exchange lookup(String sessionId, String key) {
+        List<Exchange> timeline = sessionId == null ? sessionless : bySession.get(sessionId);
+        if (timeline == null) {
+            return null;
+        }
+        String cursorKey = sessionId == null ? "" : sessionId;
+        synchronized (timeline) {
+            int cursor = cursors.getOrDefault(cursorKey, 0);
+            for (int i = cursor; i < Math.min(timeline.size(), cursor + REPLAY_LOOKAHEAD); i++) {
+                if (timeline.get(i).key().equals(key)) {
+                    cursors.put(cursorKey, i + 1);
+                    return timeline.get(i);
+                }
+            }
+            for (int i = Math.min(cursor, timeline.size()) - 1; i >= 0; i--) {
+                if (timeline.get(i).key().equals(key)) {
+                    return timeline.get(i);
+                }
+            }
+            for (int i = cursor + REPLAY_LOOKAHEAD; i < timeline.size(); i++) {
+                if (timeline.get(i).key().equals(key)) {
+                    cursors.put(cursorKey, i + 1);
+                    return timeline.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    // ---- Trace file ----
+
+    public static List<Exchange> read(Path traceFile) throws IOException {
+        List<Exchange> exchanges = new ArrayList<>();
+        List<String> dictionary = new ArrayList<>();
+        dictionary.add(null);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(traceFile))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("❌ Not an Appium trace: " + traceFile);
+            }
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("❌ Unsupported trace version " + version + " in " + traceFile);
+            }
+            in.readLong();
+            while (true) {
+                int tag;
+                try {
+                    tag = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (tag == DICTIONARY_ENTRY) {
+                    dictionary.add(in.readUTF());
+                } else if (tag == EXCHANGE) {
+                    String key = dictionary.get((int) readVarLong(in));
+                    String sessionId = dictionary.get((int) readVarLong(in));
+                    long offset = readVarLong(in);
+                    long latency = readVarLong(in);
+                    int status = (int) readVarLong(in);
+                    byte[] request = in.readNBytes((int) readVarLong(in));
+                    byte[] response = in.readNBytes((int) readVarLong(in));
+                    exchanges.add(new Exchange(key, sessionId, offset, latency, status, request, response));
+                } else {
+                    throw new IOException("❌ Corrupt trace record tag " + tag + " in " + traceFile);
+                }
+            }
+        } catch (EOFException e) {
+            // Trace cut short (recording killed); keep what was complete
+            System.err.println("⚠️ Trace " + traceFile + " is truncated, using " + exchanges.size() + " complete command(s)");
+        }
+        return exchanges;
+    }
+
+    // Per-command latency table for the whole trace and for its slowest session
+    public static void printStats(List<Exchange> exchanges) {
+        Map<String, Long> sessionTotals = new LinkedHashMap<>();
+        for (Exchange exchange : exchanges) {
+            if (exchange.sessionId() != null) {
+                sessionTotals.merge(exchange.sessionId(), exchange.latencyMicros(), Long::sum);
+            }
+        }
+
+        System.out.println("\n=== TRACE: ALL COMMANDS (" + exchanges.size() + ") ===");
+        printTable(exchanges);
+
+        String slowest = sessionTotals.entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+        if (slowest != null && sessionTotals.size() > 1) {
+            System.out.println("\n=== TRACE: SLOWEST SESSION " + slowest + " (" + sessionTotals.get(slowest) / 1000 + " ms server time) ===");
+            printTable(exchanges.stream().filter(e -> slowest.equals(e.sessionId())).toList());
+        }
+    }
+
+    private static void printTable(List<Exchange> exchanges) {
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        Map<String, Long> totals = new HashMap<>();
+        for (Exchange exchange : exchanges) {
+            histograms.computeIfAbsent(exchange.key(), k -> new LatencyHistogram()).recordMicros(exchange.latencyMicros());
+            totals.merge(exchange.key(), exchange.latencyMicros(), Long::sum);
+        }
+        System.out.println(String.format(Locale.ROOT, "%-55s %6s %10s %9s %9s %9s", "Command", "Count", "Total ms", "p50 ms", "p95 ms", "Max ms"));
+        totals.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .forEach(entry -> {
+                LatencyHistogram h = histograms.get(entry.getKey());
+                System.out.println(String.format(Locale.ROOT, "%-55s %6d %10.1f %9.1f %9.1f %9.1f",
+                    entry.getKey(), h.count(), entry.getValue() / 1000.0,
+                    h.percentileMicros(50) / 1000.0, h.percentileMicros(95) / 1000.0, h.maxMicros() / 1000.0));
+            });
+    }
+
+    // ---- Helpers ----
+
+    // Session and element ids are replaced so the same command shares one key
+    static String keyOf(String method, String path) {
+        String[] parts = path.replaceAll("^/+|/+$", "").split("/");
+        StringBuilder key = new StringBuilder(method).append(' ');
+        for (int i = 0; i < parts.length; i++) {
+            key.append('/');
+            if (i > 0 && parts[i - 1].equals("session")) {
+                key.append(":sid");
+            } else if (i > 0 && parts[i - 1].equals("element") && i > 2) {
+                key.append(":eid");
+            } else {
+                key.append(parts[i]);
+            }
+        }
+        return key.toString();
+    }
+
+    private static String sessionIdOf(String path) {
+        String[] parts = path.replaceAll("^/+|/+$", "").split("/");
+        return parts.length >= 2 && parts[0].equals("session") ? parts[1] : null;
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream response = exchange.getResponseBody()) {
+            response.write(body);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("❌ Malformed varint in trace");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: TraceProxy record <appiumUrl> <trace> [port] | replay <trace> [--paced] [port] | stats <trace>");
+            return;
+        }
+        switch (args[0]) {
+            case "record" -> {
+                int port = args.length > 3 ? Integer.parseInt(args[3]) : 4724;
+                TraceProxy proxy = record(args[1], Paths.get(args[2]), port);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        proxy.close();
+                    } catch (IOException e) {
+                        System.err.println("❌ Cannot finish trace: " + e.getMessage());
+                    }
+                }, "trace-proxy-close"));
+                Thread.currentThread().join();
+            }
+            case "replay" -> {
+                boolean paced = args.length > 2 && args[2].equals("--paced");
+                int portIndex = paced ? 3 : 2;
+                int port = args.length > portIndex ? Integer.parseInt(args[portIndex]) : 4724;
+                replay(Paths.get(args[1]), paced, port);
+                Thread.currentThread().join();
+            }
+            case "stats" -> printStats(read(Paths.get(args[1])));
+            default -> throw new IllegalArgumentException("❌ Unknown mode " + args[0]);
+        }
+    }
+}
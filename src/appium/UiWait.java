@@ -0,0 +1,93 @@
+package appium;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import io.appium.java_client.AppiumDriver;
+
+// Adaptive replacement for the fixed Thread.sleep pauses used by the runners.
+// settle() returns as soon as the screen stops changing instead of always
+// paying the full pause, and never waits longer than the old fixed pause.
+public class UiWait {
+    // How often the screen is sampled while waiting for it to settle
+    private static final long POLL_INTERVAL_MS = 150;
+
+    // Number of identical consecutive samples that count as "settled"
+    private static final int STABLE_SAMPLES = 2;
+
+    private static long totalSavedMs = 0;
+
+    public static void settle(WebDriver driver, String step, long maxWaitMs) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long deadline = start + maxWaitMs;
+
+        try {
+            if (driver instanceof AppiumDriver) {
+                waitForStableSource(driver, deadline);
+            } else {
+                // One in-page wait for load plus a quiet DOM; sampling only where scripts cannot run
+                if (!ScreenEvents.awaitQuiet(driver, POLL_INTERVAL_MS * STABLE_SAMPLES, deadline)) {
+                    waitForDocumentReady(driver, deadline);
+                    waitForStableSource(driver, deadline);
+                }
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // Could not sample the screen (session busy, context switch, ...):
+            // fall back to the remaining part of the old fixed pause
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining > 0) {
+                Thread.sleep(remaining);
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        long saved = Math.max(0, maxWaitMs - elapsed);
+        synchronized (UiWait.class) {
+            totalSavedMs += saved;
+        }
+        System.out.println("⏱️ " + step + ": settled in " + elapsed + " ms (saved " + saved + " ms vs fixed " + maxWaitMs + " ms)");
+    }
+
+    public static synchronized long totalSavedMs() {
+        return totalSavedMs;
+    }
+
+    private static void waitForStableSource(WebDriver driver, long deadline) throws InterruptedException {
+        int previousHash = driver.getPageSource().hashCode();
+        int stableCount = 1;
+
+        while (stableCount < STABLE_SAMPLES) {
+            if (!sleepUntilNextPoll(deadline)) {
+                return;
+            }
+            int hash = driver.getPageSource().hashCode();
+            if (hash == previousHash) {
+                stableCount++;
+            } else {
+                previousHash = hash;
+                stableCount = 1;
+            }
+        }
+    }
+
+    private static void waitForDocumentReady(WebDriver driver, long deadline) throws InterruptedException {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        while (!"complete".equals(js.executeScript("return document.readyState"))) {
+            if (!sleepUntilNextPoll(deadline)) {
+                return;
+            }
+        }
+    }
+
+    // Sleeps one poll interval, capped at the deadline. Returns false once the deadline has passed.
+    private static boolean sleepUntilNextPoll(long deadline) throws InterruptedException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return false;
+        }
+        Thread.sleep(Math.min(POLL_INTERVAL_MS, remaining));
+        return true;
+    }
+}
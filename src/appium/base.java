@@ -7,12 +7,11 @@ import java.net.URL;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidElement;
-import io.appium.java_client.remote.MobileCapabilityType;
 
 public class base {
     public static void main(String[] args) {
         // define basic test requirements such as device name, app/apk location
-        DesiredCapabilities cap = new DesiredCapabilities();
+        Device device = Device.defaultDevice();
 
         // Using the correct path - the APK is in src/appium folder
         File appDir = new File("src/appium");
@@ -22,26 +21,23 @@ public class base {
         System.out.println("APK path: " + app.getAbsolutePath());
         System.out.println("APK exists: " + app.exists());
 
-        // Capabilities setup
-        cap.setCapability(MobileCapabilityType.DEVICE_NAME, "Android Device");
-        cap.setCapability("udid", "5cbacd90"); // Using the UDID from your logs
-        cap.setCapability(MobileCapabilityType.APP, app.getAbsolutePath());
-        cap.setCapability(MobileCapabilityType.AUTOMATION_NAME, "uiautomator2");
-        cap.setCapability(MobileCapabilityType.PLATFORM_NAME, "Android");
-        cap.setCapability("noReset", true);
-        cap.setCapability("autoGrantPermissions", true);
+        // Capabilities setup: shared profile from capability-profiles.properties (-Dcapability.profile overrides)
+        CapabilityProfiles.Profile profile = CapabilityProfiles.shared().select("warm-noReset", device.udid());
+        DesiredCapabilities cap = profile.toCapabilities(app, "io.appium.android.apis");
+        device.applyTo(cap);
+        ApkInstaller.shared().applyTo(cap, device, app, "io.appium.android.apis");
 
         try {
             // For Appium 2.0+, the correct endpoint is /
             URL url = new URI("http://127.0.0.1:4723").toURL();
-            AndroidDriver<AndroidElement> driver = new AndroidDriver<>(url, cap);
+            AndroidDriver<AndroidElement> driver = SessionPool.shared().acquire(url, cap, profile.name());
             System.out.println("Session created successfully!");
             
             // Add a sleep to keep the session open for a while
             Thread.sleep(5000);
             
-            // Close the driver
-            driver.quit();
+            // Hand the session back to the pool (quit on JVM exit)
+            SessionPool.shared().release(driver);
             
         } catch (MalformedURLException | URISyntaxException e) {
             System.out.println("Error creating URL: " + e.getMessage());
@@ -12,14 +12,15 @@ import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import io.appium.java_client.TouchAction;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidElement;
-import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.touch.offset.PointOption;
 
 public class basics {
     public static void main(String[] args) {
         // Define basic test requirements
-        DesiredCapabilities cap = new DesiredCapabilities();
+        Device device = Device.defaultDevice();
         
         // APK setup
         File appDir = new File("src/appium");
@@ -28,57 +29,31 @@ public class basics {
         System.out.println("APK path: " + app.getAbsolutePath());
         System.out.println("APK exists: " + app.exists());
         
-        // APPIUM 2.0+ COMPATIBLE CAPABILITIES WITH PROPER VENDOR PREFIXES
-        cap.setCapability(MobileCapabilityType.DEVICE_NAME, "Android Device");
-        cap.setCapability("appium:udid", "5cbacd90");
-        cap.setCapability(MobileCapabilityType.APP, app.getAbsolutePath());
-        cap.setCapability(MobileCapabilityType.AUTOMATION_NAME, "UiAutomator2");
-        cap.setCapability(MobileCapabilityType.PLATFORM_NAME, "Android");
+        // Shared start-up profile from capability-profiles.properties (-Dcapability.profile overrides)
+        CapabilityProfiles.Profile profile = CapabilityProfiles.shared().select("fast-start", device.udid());
+        DesiredCapabilities cap = profile.toCapabilities(app, "io.appium.android.apis");
         
-        // CRITICAL FIXES WITH PROPER VENDOR PREFIXES (appium:):
+        // Real device settings: udid and systemPort/chromeDriverPort
+        device.applyTo(cap);
         
-        // 1. Skip problematic server operations
-        cap.setCapability("appium:skipServerInstallation", true);
-        cap.setCapability("appium:skipDeviceInitialization", true);
-        cap.setCapability("appium:skipLogcatCapture", true);
+        // Installed once per build ahead of the session instead of through the app capability
+        ApkInstaller.shared().applyTo(cap, device, app, "io.appium.android.apis");
         
-        // 2. Handle hidden API policy errors (Android 9+)
-        cap.setCapability("appium:ignoreHiddenApiPolicyError", true);
-        cap.setCapability("appium:allowTestPackages", true);
-        
-        // 3. Real device specific settings
-        cap.setCapability("appium:systemPort", 8201); // Unique port for this device
-        cap.setCapability("appium:chromeDriverPort", 9516); // Unique Chrome driver port
-        
-        // 4. Permission and installation settings
-        cap.setCapability("appium:autoGrantPermissions", true);
-        cap.setCapability("appium:noReset", true); // Keep app state for real device testing
-        cap.setCapability("appium:fullReset", false);
+        // Only this runner: restart the app and wait for webviews
         cap.setCapability("appium:ensureWebviewsHavePages", true);
-        
-        // 5. Real device stability settings
-        cap.setCapability("appium:newCommandTimeout", 300);
-        cap.setCapability("appium:androidInstallTimeout", 120000); // Longer for real devices
-        cap.setCapability("appium:adbExecTimeout", 40000);
-        cap.setCapability("appium:androidDeviceReadyTimeout", 60);
-        
-        // 6. Skip screen unlock attempts (safer for real devices)
-        cap.setCapability("appium:skipUnlock", true);
-        
-        // 7. Additional real device optimizations
-        cap.setCapability("appium:disableIdLocatorAutocompletion", true);
         cap.setCapability("appium:shouldTerminateApp", true);
         cap.setCapability("appium:forceAppLaunch", true);
         
         try {
             URL url = new URI("http://127.0.0.1:4723").toURL();
-            AndroidDriver<AndroidElement> driver = new AndroidDriver<>(url, cap);
+            AndroidDriver<AndroidElement> driver = SessionPool.shared().acquire(url, cap, profile.name());
             System.out.println("Session created successfully!");
             
-            WebDriverWait wait = new WebDriverWait(driver, 15); // Increased timeout
+            ScreenEvents.watch(driver, device);
+            WebDriverWait wait = ScreenEvents.waitFor(driver, 15); // Increased timeout
             
             // Wait for app to fully load
-            Thread.sleep(3000); // Increased wait time
+            UiWait.settle(driver, "App launch", 3000);
             
             // Print app context for debugging
             System.out.println("Current context: " + driver.getContext());
@@ -87,17 +62,12 @@ public class basics {
             // List all visible elements for debugging
             System.out.println("Attempting to find and list all text elements:");
             try {
-                java.util.List<AndroidElement> allElements = driver.findElementsByClassName("android.widget.TextView");
+                // One page-source round trip instead of getText()/isDisplayed() per element
+                java.util.List<ScreenSnapshot.UiNode> allElements = ScreenSnapshot.capture(driver).byClass("android.widget.TextView");
                 System.out.println("Found " + allElements.size() + " TextView elements");
                 for (int i = 0; i < Math.min(allElements.size(), 10); i++) { // Limit to first 10
-                    AndroidElement element = allElements.get(i);
-                    try {
-                        String text = element.getText();
-                        boolean displayed = element.isDisplayed();
-                        System.out.println("Element " + i + ": Text='" + text + "', Displayed=" + displayed);
-                    } catch (Exception e) {
-                        System.out.println("Element " + i + ": Could not get details - " + e.getMessage());
-                    }
+                    ScreenSnapshot.UiNode element = allElements.get(i);
+                    System.out.println("Element " + i + ": Text='" + element.text() + "', Displayed=" + element.displayed());
                 }
             } catch (Exception e) {
                 System.out.println("Exception while listing elements: " + e.getMessage());
@@ -141,17 +111,14 @@ public class basics {
                     } catch (Exception e3) {
                         System.out.println("XPath with wait failed: " + e3.getMessage());
                         
-                        // Strategy 4: Try to find by index if we know the structure
+                        // Strategy 4: Scan one page-source snapshot and tap the element's bounds
                         try {
-                            java.util.List<AndroidElement> textViews = driver.findElementsByClassName("android.widget.TextView");
-                            for (int i = 0; i < textViews.size(); i++) {
-                                AndroidElement tv = textViews.get(i);
-                                if ("App".equals(tv.getText())) {
-                                    System.out.println("Found App element by iterating, clicking...");
-                                    tv.click();
-                                    appClicked = true;
-                                    break;
-                                }
+                            ScreenSnapshot.UiNode tv = ScreenSnapshot.capture(driver).first(
+                                node -> "android.widget.TextView".equals(node.className()) && "App".equals(node.text()) && node.bounds() != null);
+                            if (tv != null) {
+                                System.out.println("Found App element by iterating, clicking...");
+                                new TouchAction<>(driver).tap(PointOption.point(tv.bounds().centerX(), tv.bounds().centerY())).perform();
+                                appClicked = true;
                             }
                         } catch (Exception e4) {
                             System.out.println("Iteration approach failed: " + e4.getMessage());
@@ -166,7 +133,7 @@ public class basics {
             }
             
             // Wait for navigation
-            Thread.sleep(2000);
+            UiWait.settle(driver, "App navigation", 2000);
             
             // Continue with Activity navigation
             try {
@@ -178,7 +145,7 @@ public class basics {
                 System.out.println("Found Activity element, clicking...");
                 activityOption.click();
                 
-                Thread.sleep(1500);
+                UiWait.settle(driver, "Activity", 1500);
                 
                 // Click on Custom Title
                 WebElement customTitleOption = wait.until(
@@ -189,7 +156,7 @@ public class basics {
                 System.out.println("Found Custom Title element, clicking...");
                 customTitleOption.click();
                 
-                Thread.sleep(1500);
+                UiWait.settle(driver, "Custom Title", 1500);
                 
                 // Interact with input fields
                 try {
@@ -210,7 +177,7 @@ public class basics {
                     changeLeftButton.click();
                     System.out.println("Clicked the Change Left button");
                     
-                    Thread.sleep(2000);
+                    UiWait.settle(driver, "Change Left", 2000);
                     
                 } catch (Exception e) {
                     System.out.println("Failed to interact with input fields: " + e.getMessage());
@@ -225,7 +192,7 @@ public class basics {
             for (int i = 0; i < 3; i++) {
                 try {
                     driver.navigate().back();
-                    Thread.sleep(1000);
+                    UiWait.settle(driver, "Back navigation", 1000);
                 } catch (Exception e) {
                     System.out.println("Back navigation attempt " + (i+1) + " failed: " + e.getMessage());
                 }
@@ -240,7 +207,7 @@ public class basics {
                 viewsElement.click();
                 System.out.println("Clicked on Views");
                 
-                Thread.sleep(2000);
+                UiWait.settle(driver, "Views", 2000);
                 
                 // Try scrolling to find WebView
                 try {
@@ -251,7 +218,7 @@ public class basics {
                     if (webViewElement != null) {
                         System.out.println("Successfully scrolled to WebView");
                         webViewElement.click();
-                        Thread.sleep(2000);
+                        UiWait.settle(driver, "WebView", 2000);
                     }
                 } catch (Exception e) {
                     System.out.println("Scrolling to WebView failed: " + e.getMessage());
@@ -261,8 +228,8 @@ public class basics {
                 System.out.println("Views navigation failed: " + e.getMessage());
             }
             
-            System.out.println("Test completed successfully. Closing driver...");
-            driver.quit();
+            System.out.println("Test completed successfully. Returning driver to session pool...");
+            SessionPool.shared().release(driver);
             
         } catch (MalformedURLException | URISyntaxException e) {
             System.out.println("Error creating URL: " + e.getMessage());